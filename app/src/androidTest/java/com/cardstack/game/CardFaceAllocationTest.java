@@ -0,0 +1,189 @@
+package com.cardstack.game;
+
+import android.app.Instrumentation;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.Debug;
+import android.util.Log;
+import android.view.View;
+
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Frame-path regression check for the card faces: CardView.draw must not allocate,
+ * whether it blits a cached face or draws one that is still being rendered, or hand
+ * animations bring back GC pauses.
+ *
+ * ART only reports allocated bytes process-wide and in thread-local buffer sized steps,
+ * so each check draws many frames and allows less than half the smallest object per
+ * frame; one allocation per frame fails it. The render thread is held or idle while a
+ * check counts. Run with ./gradlew connectedAndroidTest.
+ */
+public class CardFaceAllocationTest {
+    private static final String TAG = "CardFaceAllocationTest";
+    private static final int WIDTH = 200;
+    private static final int HEIGHT = 300;
+    private static final int FRAMES = 20_000;
+    private static final long MAX_BYTES_PER_FRAME = 8; // An object is at least 16 bytes
+
+    private final Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+    private final CardFaceCache cache = CardFaceCache.getInstance();
+
+    @Test
+    public void rendererDrawDoesNotAllocate() {
+        List<Card> faces = allFaces();
+        CardFaceRenderer[] renderers = new CardFaceRenderer[faces.size()];
+        for (int i = 0; i < renderers.length; i++) {
+            renderers[i] = new CardFaceRenderer();
+            renderers[i].layout(faces.get(i), WIDTH, HEIGHT);
+        }
+        Canvas canvas = newCanvas();
+        for (CardFaceRenderer renderer : renderers) {
+            renderer.draw(canvas); // Warm up text and path caches
+        }
+
+        long before = bytesAllocated();
+        long start = System.nanoTime();
+        for (int frame = 0; frame < FRAMES; frame++) {
+            renderers[frame % renderers.length].draw(canvas);
+        }
+        long micros = (System.nanoTime() - start) / 1000;
+        long allocated = bytesAllocated() - before;
+
+        Log.i(TAG, "CardFaceRenderer.draw: " + (micros / (double) FRAMES) + " us, "
+                + allocated + " bytes over " + FRAMES + " frames");
+        assertTrue("draw() allocated " + allocated + " bytes over " + FRAMES + " frames",
+                allocated < FRAMES * MAX_BYTES_PER_FRAME);
+    }
+
+    @Test
+    public void cachedFaceDrawDoesNotAllocate() throws InterruptedException {
+        List<Card> faces = allFaces();
+        List<CardView> views = new ArrayList<>();
+        CountDownLatch ready = new CountDownLatch(faces.size());
+        instrumentation.runOnMainSync(() -> {
+            for (Card card : faces) {
+                views.add(layOut(card)); // Asks the cache for its face
+                Long key = CardFaceCache.key(card, false, WIDTH, HEIGHT);
+                if (cache.get(key) != null) {
+                    ready.countDown();
+                } else {
+                    cache.request(key, card, false, WIDTH, HEIGHT, ready::countDown);
+                }
+            }
+        });
+        assertTrue("Faces were not rendered in time", ready.await(30, TimeUnit.SECONDS));
+        awaitRenderThreadIdle();
+
+        long allocated = drawFrames(views, "CardView.draw, cached");
+        assertTrue("Cached draw allocated " + allocated + " bytes over " + FRAMES + " frames",
+                allocated < FRAMES * MAX_BYTES_PER_FRAME);
+    }
+
+    @Test
+    public void uncachedFaceDrawDoesNotAllocate() throws InterruptedException {
+        List<Card> faces = allFaces();
+        List<CardView> views = new ArrayList<>();
+
+        // Park the render thread, so every face stays on its way for the whole check
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        cache.runOnRenderThread(() -> {
+            held.countDown();
+            awaitQuietly(release);
+        });
+        try {
+            assertTrue("Render thread did not pick up the hold", held.await(30, TimeUnit.SECONDS));
+            instrumentation.runOnMainSync(() -> {
+                cache.evictAll();
+                for (Card card : faces) {
+                    views.add(layOut(card)); // Queues the face's only render
+                }
+            });
+
+            long allocated = drawFrames(views, "CardView.draw, uncached");
+            assertTrue("Uncached draw allocated " + allocated + " bytes over " + FRAMES + " frames",
+                    allocated < FRAMES * MAX_BYTES_PER_FRAME);
+        } finally {
+            release.countDown();
+        }
+        awaitRenderThreadIdle();
+    }
+
+    // Draws FRAMES frames round the views on the main thread, after one warm-up frame each;
+    // returns the bytes allocated meanwhile
+    private long drawFrames(List<CardView> views, String label) {
+        long[] allocated = new long[1];
+        instrumentation.runOnMainSync(() -> {
+            Canvas canvas = newCanvas();
+            for (CardView view : views) {
+                view.draw(canvas);
+            }
+
+            long before = bytesAllocated();
+            long start = System.nanoTime();
+            for (int frame = 0; frame < FRAMES; frame++) {
+                views.get(frame % views.size()).draw(canvas);
+            }
+            long micros = (System.nanoTime() - start) / 1000;
+            allocated[0] = bytesAllocated() - before;
+
+            Log.i(TAG, label + ": " + (micros / (double) FRAMES) + " us, "
+                    + allocated[0] + " bytes over " + FRAMES + " frames");
+        });
+        return allocated[0];
+    }
+
+    private CardView layOut(Card card) {
+        CardView view = new CardView(instrumentation.getTargetContext());
+        view.setCard(card);
+        view.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, WIDTH, HEIGHT);
+        return view;
+    }
+
+    // Returns once every render queued so far has finished
+    private void awaitRenderThreadIdle() throws InterruptedException {
+        CountDownLatch idle = new CountDownLatch(1);
+        cache.runOnRenderThread(idle::countDown);
+        assertTrue("Render thread did not go idle", idle.await(30, TimeUnit.SECONDS));
+        instrumentation.waitForIdleSync(); // Ready callbacks posted to the main thread
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Canvas newCanvas() {
+        return new Canvas(Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888));
+    }
+
+    private static List<Card> allFaces() {
+        List<Card> faces = new ArrayList<>();
+        for (int code = 0; code < Card.CODE_LIMIT; code++) {
+            Card card = Card.fromCode(code);
+            if (card != null) {
+                faces.add(card);
+            }
+        }
+        return faces;
+    }
+
+    private static long bytesAllocated() {
+        return Long.parseLong(Debug.getRuntimeStat("art.gc.bytes-allocated"));
+    }
+}
@@ -1,5 +1,14 @@
 package com.cardstack.game;
 
+/**
+ * A card face. Instances are canonical flyweights: there is exactly one Card per
+ * (color, type, number) combination, obtained through {@link #of} or {@link #fromCode},
+ * so cards can be compared by identity and never need to be allocated during play.
+ *
+ * Each card also has a compact int code, (color ordinal << 4) | symbol, where symbol is
+ * the number 0-9 for number cards, or one of the SYMBOL_ constants for other types.
+ * Codes fit in a byte and let the engine and AI work on primitives.
+ */
 public class Card {
     public enum Color {
         RED, BLUE, GREEN, YELLOW, WILD
@@ -9,14 +18,102 @@ public class Card {
         NUMBER, SKIP, REVERSE, DRAW_TWO, WILD, WILD_DRAW_FOUR
     }
 
+    public static final int SYMBOL_SKIP = 10;
+    public static final int SYMBOL_REVERSE = 11;
+    public static final int SYMBOL_DRAW_TWO = 12;
+    public static final int SYMBOL_WILD = 13;
+    public static final int SYMBOL_WILD_DRAW_FOUR = 14;
+
+    // Upper bound (exclusive) of all card codes
+    public static final int CODE_LIMIT = Color.values().length << 4;
+
+    private static final Color[] COLORS = Color.values();
+    private static final Type[] SYMBOL_TYPES = {
+        Type.NUMBER, Type.NUMBER, Type.NUMBER, Type.NUMBER, Type.NUMBER,
+        Type.NUMBER, Type.NUMBER, Type.NUMBER, Type.NUMBER, Type.NUMBER,
+        Type.SKIP, Type.REVERSE, Type.DRAW_TWO, Type.WILD, Type.WILD_DRAW_FOUR
+    };
+
+    // Flyweight table indexed by code; includes "wild with chosen color" faces used for the top card
+    private static final Card[] CARDS = new Card[CODE_LIMIT];
+
+    static {
+        for (Color color : COLORS) {
+            for (int symbol = 0; symbol < SYMBOL_TYPES.length; symbol++) {
+                Type type = SYMBOL_TYPES[symbol];
+                int number = type == Type.NUMBER ? symbol : 0;
+                int code = (color.ordinal() << 4) | symbol;
+                CARDS[code] = new Card(color, type, number, code);
+            }
+        }
+    }
+
     private final Color color;
     private final Type type;
     private final int number;
+    private final int code;
 
-    public Card(Color color, Type type, int number) {
+    private Card(Color color, Type type, int number, int code) {
         this.color = color;
         this.type = type;
         this.number = number;
+        this.code = code;
+    }
+
+    public static Card of(Color color, Type type, int number) {
+        return CARDS[encode(color, type, number)];
+    }
+
+    public static Card fromCode(int code) {
+        return CARDS[code];
+    }
+
+    public static int encode(Color color, Type type, int number) {
+        int symbol;
+        switch (type) {
+            case NUMBER:
+                symbol = number;
+                break;
+            case SKIP:
+                symbol = SYMBOL_SKIP;
+                break;
+            case REVERSE:
+                symbol = SYMBOL_REVERSE;
+                break;
+            case DRAW_TWO:
+                symbol = SYMBOL_DRAW_TWO;
+                break;
+            case WILD:
+                symbol = SYMBOL_WILD;
+                break;
+            default:
+                symbol = SYMBOL_WILD_DRAW_FOUR;
+                break;
+        }
+        return (color.ordinal() << 4) | symbol;
+    }
+
+    public static int colorOf(int code) {
+        return code >> 4;
+    }
+
+    public static int symbolOf(int code) {
+        return code & 0xF;
+    }
+
+    public static boolean isWild(int code) {
+        return symbolOf(code) >= SYMBOL_WILD;
+    }
+
+    /**
+     * Same face with a different color, e.g. a Wild showing the color chosen for it.
+     */
+    public Card withColor(Color newColor) {
+        return CARDS[(newColor.ordinal() << 4) | symbolOf(code)];
+    }
+
+    public int getCode() {
+        return code;
     }
 
     public Color getColor() {
@@ -32,34 +129,15 @@ public class Card {
     }
 
     public boolean canPlayOn(Card topCard, boolean allowActionStacking) {
-        // Wild cards can always be played
-        if (type == Type.WILD || type == Type.WILD_DRAW_FOUR) {
-            return true;
-        }
-        
-        // After a wild card was played, check against the chosen color
-        if (topCard.color == Color.WILD) {
-            return true;
-        }
-        
-        // Can play if colors match
-        if (color == topCard.color) {
-            return true;
-        }
-        
-        // Can play if card types match (Skip on Skip, Reverse on Reverse, Draw Two on Draw Two)
-        // This allows action cards to be played on matching action cards regardless of color
-        // Only if action stacking is enabled in settings
-        if (allowActionStacking && type == topCard.type && type != Type.NUMBER) {
-            return true;
-        }
-        
-        // Number cards can match other number cards with the same number (regardless of color)
-        if (type == Type.NUMBER && topCard.type == Type.NUMBER && number == topCard.number) {
-            return true;
-        }
-        
-        return false;
+        return canPlayOn(code, topCard.code, allowActionStacking);
+    }
+
+    /**
+     * Playability check on card codes; same rules as {@link #canPlayOn(Card, boolean)},
+     * looked up in the precomputed {@link Playability} table.
+     */
+    public static boolean canPlayOn(int code, int topCode, boolean allowActionStacking) {
+        return Playability.canPlay(code, topCode, allowActionStacking);
     }
 
     public String getDisplayText() {
@@ -86,19 +164,20 @@ public class Card {
     }
 
     public int getColorResource() {
+        // ARGB literals rather than android.graphics.Color so the engine also runs on a plain JVM
         switch (color) {
             case RED:
-                return android.graphics.Color.rgb(220, 20, 20);
+                return 0xFFDC1414;
             case BLUE:
-                return android.graphics.Color.rgb(20, 100, 220);
+                return 0xFF1464DC;
             case GREEN:
-                return android.graphics.Color.rgb(20, 180, 20);
+                return 0xFF14B414;
             case YELLOW:
-                return android.graphics.Color.rgb(255, 200, 0);
+                return 0xFFFFC800;
             case WILD:
-                return android.graphics.Color.rgb(50, 50, 50);
+                return 0xFF323232;
             default:
-                return android.graphics.Color.GRAY;
+                return 0xFF888888;
         }
     }
 }
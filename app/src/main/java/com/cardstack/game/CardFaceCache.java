@@ -0,0 +1,121 @@
+package com.cardstack.game;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Process-wide cache of pre-rendered card faces, so a CardView can blit one bitmap
+ * instead of drawing rounded rects, ovals, text and icon paths every frame.
+ *
+ * Faces are keyed by card code, size class and pixel size. The size is part of the key,
+ * so after a screen size or density change the old faces are never asked for again and
+ * the LRU pushes them out as new ones come in. Bitmaps are rendered on a background
+ * thread; until a face is ready, CardView draws it directly.
+ */
+public class CardFaceCache {
+    private static CardFaceCache instance;
+
+    private final LruCache<Long, Bitmap> faces;
+    private final ExecutorService renderThread = Executors.newSingleThreadExecutor();
+    private final CardFaceRenderer renderer = new CardFaceRenderer(); // Only used on renderThread
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Callbacks waiting for a face that is being rendered; main thread only
+    private final Map<Long, List<Runnable>> pending = new HashMap<>();
+
+    public static synchronized CardFaceCache getInstance() {
+        if (instance == null) {
+            instance = new CardFaceCache();
+        }
+        return instance;
+    }
+
+    private CardFaceCache() {
+        // An eighth of the heap; a full set of large phone faces is only a few MB
+        int maxBytes = (int) Math.min(Integer.MAX_VALUE, Runtime.getRuntime().maxMemory() / 8);
+        faces = new LruCache<Long, Bitmap>(maxBytes) {
+            @Override
+            protected int sizeOf(Long key, Bitmap bitmap) {
+                return bitmap.getByteCount();
+            }
+        };
+    }
+
+    /**
+     * Cache key for a face. Boxed once by the caller and reused for every lookup.
+     */
+    public static Long key(Card card, boolean small, int width, int height) {
+        return ((long) width << 40) | ((long) height << 16) | (small ? 1L << 8 : 0) | card.getCode();
+    }
+
+    /**
+     * The rendered face, or null if it has not been rendered yet.
+     */
+    public Bitmap get(Long key) {
+        return faces.get(key);
+    }
+
+    /**
+     * Render the face in the background unless it is cached or already on its way.
+     * onReady runs on the main thread once the bitmap is in the cache, once however often
+     * it was passed in meanwhile, so a view may ask again on every frame it misses.
+     * Call from the main thread.
+     */
+    public void request(Long key, Card card, boolean small, int width, int height, Runnable onReady) {
+        if (faces.get(key) != null) {
+            return;
+        }
+        List<Runnable> waiting = pending.get(key);
+        if (waiting != null) {
+            if (!waiting.contains(onReady)) {
+                waiting.add(onReady);
+            }
+            return;
+        }
+        waiting = new ArrayList<>();
+        waiting.add(onReady);
+        pending.put(key, waiting);
+
+        renderThread.execute(() -> {
+            Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            renderer.setSmall(small);
+            renderer.layout(card, width, height);
+            renderer.draw(new Canvas(bitmap));
+            faces.put(key, bitmap);
+
+            mainHandler.post(() -> {
+                List<Runnable> callbacks = pending.remove(key);
+                if (callbacks != null) {
+                    for (Runnable callback : callbacks) {
+                        callback.run();
+                    }
+                }
+            });
+        });
+    }
+
+    /**
+     * Run task on the render thread after the renders queued so far. Lets tests hold
+     * renders back, or wait until none are left running.
+     */
+    void runOnRenderThread(Runnable task) {
+        renderThread.execute(task);
+    }
+
+    /**
+     * Drop every cached face, e.g. when the system asks the app to free memory.
+     */
+    public void evictAll() {
+        faces.evictAll();
+    }
+}
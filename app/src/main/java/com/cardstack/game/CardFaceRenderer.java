@@ -0,0 +1,359 @@
+package com.cardstack.game;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RectF;
+
+/**
+ * Draws a single card face onto a canvas. Holds its own paints and paths, so each thread
+ * that renders faces needs its own instance: CardView uses one on the UI thread as a
+ * fallback, and CardFaceCache uses one on its render thread to fill bitmaps.
+ *
+ * All geometry is worked out in layout(), so draw() only issues draw calls and never allocates.
+ */
+public class CardFaceRenderer {
+    private static final String[] NUMBER_TEXT = {"0", "1", "2", "3", "4", "5", "6", "7", "8", "9"};
+    private static final int[] WILD_QUADRANT_COLORS = {
+        Color.rgb(220, 20, 20),  // Red (top-left)
+        Color.rgb(20, 100, 220), // Blue (top-right)
+        Color.rgb(20, 180, 20),  // Green (bottom-left)
+        Color.rgb(255, 200, 0)   // Yellow (bottom-right)
+    };
+
+    private Card card;
+    private final Paint cardPaint;
+    private final Paint borderPaint;
+    private final Paint iconPaint;
+    private final Paint whitePaint;
+    private boolean isSmall = false;
+    private int width;
+    private int height;
+
+    // Everything below is derived from the card, the size and isSmall in layout()
+    private final Paint numberPaint;
+    private final Paint cornerPaint;
+    private final Paint iconTextPaint;
+    private final Paint wildPaint;
+    private final Paint plusFourPaint;
+
+    private final RectF cardRect = new RectF();
+    private final RectF ovalRect = new RectF();
+    private float cornerRadius;
+    private float centerX;
+    private float centerY;
+
+    private String numberText;
+    private float numberY;
+    private float cornerLeftX;
+    private float cornerTopY;
+    private float cornerRightX;
+    private float cornerBottomY;
+    private boolean drawTopLeftNumber;
+    private boolean drawBottomRightNumber;
+
+    private float cornerIconPadding;
+    private boolean drawTopLeftIcon;
+    private boolean drawBottomRightIcon;
+    private final IconShape centerIcon = new IconShape();
+    private final IconShape cornerIcon = new IconShape(); // Built at the origin, then translated
+
+    // Paths and positions for one drawing of a special-card icon
+    private static final class IconShape {
+        float cx;
+        float cy;
+        float size;
+        final Path reversePath = new Path();
+        final Path[] wildQuadrants = {new Path(), new Path(), new Path(), new Path()};
+        float wildCx;
+        float wildCy;
+        float wildSize;
+    }
+
+    public CardFaceRenderer() {
+        cardPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+        borderPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        borderPaint.setStyle(Paint.Style.STROKE);
+        borderPaint.setStrokeWidth(8);
+        borderPaint.setColor(Color.WHITE);
+
+        iconPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        iconPaint.setColor(Color.WHITE);
+        iconPaint.setStyle(Paint.Style.STROKE);
+
+        whitePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        whitePaint.setColor(Color.WHITE);
+        whitePaint.setStyle(Paint.Style.FILL);
+
+        numberPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        numberPaint.setTextAlign(Paint.Align.CENTER);
+        numberPaint.setFakeBoldText(true);
+
+        cornerPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        cornerPaint.setColor(Color.WHITE);
+        cornerPaint.setTextAlign(Paint.Align.CENTER);
+        cornerPaint.setFakeBoldText(true);
+
+        iconTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        iconTextPaint.setTextAlign(Paint.Align.CENTER);
+        iconTextPaint.setFakeBoldText(true);
+
+        wildPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+        plusFourPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        plusFourPaint.setColor(Color.rgb(50, 50, 50));
+        plusFourPaint.setTextAlign(Paint.Align.CENTER);
+        plusFourPaint.setFakeBoldText(true);
+    }
+
+    public void setSmall(boolean small) {
+        this.isSmall = small;
+        borderPaint.setStrokeWidth(small ? 4 : 8);
+    }
+
+    /**
+     * Work out everything needed to draw the card at the given size.
+     */
+    public void layout(Card card, int width, int height) {
+        this.card = card;
+        this.width = width;
+        this.height = height;
+        if (card == null || width == 0 || height == 0) {
+            return;
+        }
+
+        cornerRadius = width * 0.15f;
+        cardRect.set(10, 10, width - 10, height - 10);
+        cardPaint.setColor(card.getColorResource());
+
+        // White oval in center (with padding to ensure it stays inside)
+        float ovalPadding = width * 0.20f;
+        ovalRect.set(ovalPadding, height * 0.30f, width - ovalPadding, height * 0.70f);
+
+        centerX = width / 2f;
+        centerY = height / 2f;
+
+        if (card.getType() == Card.Type.NUMBER) {
+            numberText = NUMBER_TEXT[card.getNumber()];
+
+            // Center number, shrunk if needed to fit within 80% of the oval width
+            float maxTextSize = isSmall ? 40 : 80;
+            numberPaint.setColor(card.getColorResource());
+            numberPaint.setTextSize(maxTextSize);
+            float textWidth = numberPaint.measureText(numberText);
+            float maxWidth = (width - ovalPadding * 2) * 0.8f;
+            if (textWidth > maxWidth) {
+                numberPaint.setTextSize(maxTextSize * maxWidth / textWidth);
+            }
+            numberY = centerY + (isSmall ? 15 : 30);
+
+            // Small numbers in the corners, only where they fit fully within the card
+            cornerPaint.setTextSize(isSmall ? 22 : 28);
+            float cornerTextWidth = cornerPaint.measureText(numberText);
+            float cornerTextHeight = cornerPaint.getTextSize();
+            float edgePadding = Math.max(width * 0.10f, 15f); // 10% of width or 15px minimum
+            float topPadding = Math.max(height * 0.08f, cornerTextHeight * 0.6f); // Ensure text fits
+
+            cornerLeftX = edgePadding + cornerTextWidth / 2;
+            cornerTopY = topPadding + cornerTextHeight * 0.75f; // Adjust baseline
+            drawTopLeftNumber = cornerLeftX + cornerTextWidth / 2 < width - edgePadding
+                    && cornerTopY < height - topPadding;
+
+            cornerRightX = width - edgePadding - cornerTextWidth / 2;
+            cornerBottomY = height - topPadding + cornerTextHeight * 0.25f; // Adjust baseline
+            drawBottomRightNumber = cornerRightX - cornerTextWidth / 2 > edgePadding
+                    && cornerBottomY > topPadding;
+        } else {
+            iconPaint.setColor(card.getColorResource());
+            iconTextPaint.setColor(card.getColorResource());
+            buildIcon(centerIcon, centerX, centerY, isSmall ? 30 : 60);
+
+            // Corner icons, proportionally positioned and only where they fit
+            float cornerIconSize = isSmall ? 18 : 24;
+            cornerIconPadding = Math.max(width * 0.12f, isSmall ? 24 : 32); // 12% of width
+            buildIcon(cornerIcon, 0, 0, cornerIconSize);
+            drawTopLeftIcon = cornerIconPadding + cornerIconSize < width - cornerIconPadding
+                    && cornerIconPadding + cornerIconSize < height - cornerIconPadding;
+            drawBottomRightIcon = width - cornerIconPadding - cornerIconSize > cornerIconPadding
+                    && height - cornerIconPadding - cornerIconSize > cornerIconPadding;
+        }
+    }
+
+    private void buildIcon(IconShape icon, float cx, float cy, float size) {
+        icon.cx = cx;
+        icon.cy = cy;
+        icon.size = size;
+
+        switch (card.getType()) {
+            case REVERSE:
+                buildReversePath(icon.reversePath, cx, cy, size);
+                break;
+            case WILD:
+                buildWildQuadrants(icon, cx, cy, size);
+                break;
+            case WILD_DRAW_FOUR:
+                // Smaller wild icon, shifted up to make room for "+4"
+                buildWildQuadrants(icon, cx, cy - size * 0.3f, size * 0.6f);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void buildReversePath(Path path, float cx, float cy, float size) {
+        path.rewind();
+
+        // Left arrow (counterclockwise)
+        path.moveTo(cx - size * 0.6f, cy - size * 0.2f);
+        path.lineTo(cx - size * 0.4f, cy - size * 0.5f);
+        path.lineTo(cx - size * 0.2f, cy - size * 0.2f);
+
+        // Right arrow (clockwise)
+        path.moveTo(cx + size * 0.6f, cy + size * 0.2f);
+        path.lineTo(cx + size * 0.4f, cy + size * 0.5f);
+        path.lineTo(cx + size * 0.2f, cy + size * 0.2f);
+
+        // Curved lines
+        path.moveTo(cx - size * 0.4f, cy - size * 0.3f);
+        path.quadTo(cx - size * 0.5f, cy, cx - size * 0.4f, cy + size * 0.3f);
+        path.moveTo(cx + size * 0.4f, cy + size * 0.3f);
+        path.quadTo(cx + size * 0.5f, cy, cx + size * 0.4f, cy - size * 0.3f);
+    }
+
+    private void buildWildQuadrants(IconShape icon, float cx, float cy, float size) {
+        icon.wildCx = cx;
+        icon.wildCy = cy;
+        icon.wildSize = size;
+        float d = size * 0.7f;
+
+        // Red quadrant (top-left)
+        Path path = icon.wildQuadrants[0];
+        path.rewind();
+        path.moveTo(cx, cy);
+        path.lineTo(cx - d, cy - d);
+        path.lineTo(cx, cy - d);
+        path.close();
+
+        // Blue quadrant (top-right)
+        path = icon.wildQuadrants[1];
+        path.rewind();
+        path.moveTo(cx, cy);
+        path.lineTo(cx, cy - d);
+        path.lineTo(cx + d, cy - d);
+        path.close();
+
+        // Green quadrant (bottom-left)
+        path = icon.wildQuadrants[2];
+        path.rewind();
+        path.moveTo(cx, cy);
+        path.lineTo(cx - d, cy + d);
+        path.lineTo(cx - d, cy);
+        path.close();
+
+        // Yellow quadrant (bottom-right)
+        path = icon.wildQuadrants[3];
+        path.rewind();
+        path.moveTo(cx, cy);
+        path.lineTo(cx + d, cy);
+        path.lineTo(cx + d, cy + d);
+        path.close();
+    }
+
+    public void draw(Canvas canvas) {
+        if (card == null || width == 0 || height == 0) return;
+
+        // Clip to card bounds to prevent any overflow
+        canvas.save();
+        canvas.clipRect(0, 0, width, height);
+
+        // Draw card background with rounded corners, then the white border
+        canvas.drawRoundRect(cardRect, cornerRadius, cornerRadius, cardPaint);
+        canvas.drawRoundRect(cardRect, cornerRadius, cornerRadius, borderPaint);
+
+        // Draw white oval in center
+        canvas.drawOval(ovalRect, whitePaint);
+
+        if (card.getType() == Card.Type.NUMBER) {
+            // Center number, then the small corner numbers that fit
+            canvas.drawText(numberText, centerX, numberY, numberPaint);
+            if (drawTopLeftNumber) {
+                canvas.drawText(numberText, cornerLeftX, cornerTopY, cornerPaint);
+            }
+            if (drawBottomRightNumber) {
+                canvas.drawText(numberText, cornerRightX, cornerBottomY, cornerPaint);
+            }
+        } else {
+            // Draw icon for special cards
+            drawCardIcon(canvas, centerIcon);
+
+            // Top-left corner icon
+            if (drawTopLeftIcon) {
+                canvas.save();
+                canvas.translate(cornerIconPadding, cornerIconPadding);
+                drawCardIcon(canvas, cornerIcon);
+                canvas.restore();
+            }
+
+            // Bottom-right corner icon (rotated 180 degrees)
+            if (drawBottomRightIcon) {
+                canvas.save();
+                canvas.translate(width - cornerIconPadding, height - cornerIconPadding);
+                canvas.rotate(180);
+                drawCardIcon(canvas, cornerIcon);
+                canvas.restore();
+            }
+        }
+
+        // Restore canvas (remove clipping)
+        canvas.restore();
+    }
+
+    private void drawCardIcon(Canvas canvas, IconShape icon) {
+        float cx = icon.cx;
+        float cy = icon.cy;
+        float size = icon.size;
+
+        switch (card.getType()) {
+            case SKIP:
+                // Draw circle with diagonal slash (prohibition sign)
+                iconPaint.setStrokeCap(Paint.Cap.BUTT);
+                iconPaint.setStrokeJoin(Paint.Join.MITER);
+                iconPaint.setStrokeWidth(size / 8);
+                canvas.drawCircle(cx, cy, size * 0.8f, iconPaint);
+                iconPaint.setStrokeWidth(size / 6);
+                canvas.drawLine(cx - size * 0.5f, cy - size * 0.5f, cx + size * 0.5f, cy + size * 0.5f, iconPaint);
+                break;
+            case REVERSE:
+                // Draw two curved arrows in opposite directions
+                iconPaint.setStrokeCap(Paint.Cap.ROUND);
+                iconPaint.setStrokeJoin(Paint.Join.ROUND);
+                iconPaint.setStrokeWidth(size / 8);
+                canvas.drawPath(icon.reversePath, iconPaint);
+                break;
+            case DRAW_TWO:
+                iconTextPaint.setTextSize(size * 1.2f);
+                canvas.drawText("+2", cx, cy + size * 0.4f, iconTextPaint);
+                break;
+            case WILD:
+                drawWildIcon(canvas, icon);
+                break;
+            case WILD_DRAW_FOUR:
+                // Smaller wild icon with "+4" below
+                drawWildIcon(canvas, icon);
+                plusFourPaint.setTextSize(size * 0.8f);
+                canvas.drawText("+4", cx, cy + size * 0.7f, plusFourPaint);
+                break;
+        }
+    }
+
+    private void drawWildIcon(Canvas canvas, IconShape icon) {
+        // Four colored quadrants with a white circle in the center
+        for (int i = 0; i < WILD_QUADRANT_COLORS.length; i++) {
+            wildPaint.setColor(WILD_QUADRANT_COLORS[i]);
+            canvas.drawPath(icon.wildQuadrants[i], wildPaint);
+        }
+        canvas.drawCircle(icon.wildCx, icon.wildCy, icon.wildSize * 0.3f, whitePaint);
+    }
+}
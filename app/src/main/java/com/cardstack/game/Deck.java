@@ -1,70 +1,158 @@
 package com.cardstack.game;
 
-import java.security.SecureRandom;
-import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Draw pile stored as a ring buffer, bottom at head and top at head + count - 1.
+ * Drawing from the top and inserting at the bottom are both O(1), and a discard pile
+ * can be moved under the deck in one bulk copy without shifting the cards above it.
+ */
 public class Deck {
-    private final List<Card> cards;
-    private final SecureRandom random;
+    private Card[] cards;
+    private int head;
+    private int count;
+    private final GameRandom random;
 
     public Deck() {
-        cards = new ArrayList<>();
-        random = new SecureRandom();
-        initializeDeck();
+        this(new SecureGameRandom());
     }
 
-    private void initializeDeck() {
+    public Deck(GameRandom random) {
+        this(random, 1);
+    }
+
+    /**
+     * deckCount standard decks shuffled together; see DeckFactory.
+     */
+    Deck(GameRandom random, int deckCount) {
+        int capacity = 128; // Power of two so slot() can mask instead of mod
+        while (capacity < deckCount * DeckFactory.CARDS_PER_DECK) {
+            capacity <<= 1;
+        }
+        cards = new Card[capacity];
+        this.random = random;
+        for (int i = 0; i < deckCount; i++) {
+            pushStandardDeck();
+        }
+        shuffle();
+    }
+
+    private void pushStandardDeck() {
         Card.Color[] colors = {Card.Color.RED, Card.Color.BLUE, Card.Color.GREEN, Card.Color.YELLOW};
 
         for (Card.Color color : colors) {
-            cards.add(new Card(color, Card.Type.NUMBER, 0));
-            
+            push(Card.of(color, Card.Type.NUMBER, 0));
+
             for (int i = 1; i <= 9; i++) {
-                cards.add(new Card(color, Card.Type.NUMBER, i));
-                cards.add(new Card(color, Card.Type.NUMBER, i));
+                push(Card.of(color, Card.Type.NUMBER, i));
+                push(Card.of(color, Card.Type.NUMBER, i));
             }
-            
+
             for (int i = 0; i < 2; i++) {
-                cards.add(new Card(color, Card.Type.SKIP, 0));
-                cards.add(new Card(color, Card.Type.REVERSE, 0));
-                cards.add(new Card(color, Card.Type.DRAW_TWO, 0));
+                push(Card.of(color, Card.Type.SKIP, 0));
+                push(Card.of(color, Card.Type.REVERSE, 0));
+                push(Card.of(color, Card.Type.DRAW_TWO, 0));
             }
         }
 
         for (int i = 0; i < 4; i++) {
-            cards.add(new Card(Card.Color.WILD, Card.Type.WILD, 0));
-            cards.add(new Card(Card.Color.WILD, Card.Type.WILD_DRAW_FOUR, 0));
+            push(Card.of(Card.Color.WILD, Card.Type.WILD, 0));
+            push(Card.of(Card.Color.WILD, Card.Type.WILD_DRAW_FOUR, 0));
         }
+    }
 
-        shuffle();
+    // Buffer slot of the i-th card counted from the bottom
+    private int slot(int i) {
+        return (head + i) & (cards.length - 1);
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= cards.length) {
+            return;
+        }
+        int capacity = cards.length;
+        while (capacity < needed) {
+            capacity <<= 1;
+        }
+        Card[] grown = new Card[capacity];
+        for (int i = 0; i < count; i++) {
+            grown[i] = cards[slot(i)];
+        }
+        cards = grown;
+        head = 0;
+    }
+
+    // Put a card on top; only used while building a deck
+    private void push(Card card) {
+        ensureCapacity(count + 1);
+        cards[slot(count)] = card;
+        count++;
     }
 
     public void shuffle() {
-        for (int i = cards.size() - 1; i > 0; i--) {
+        shuffleBottom(count);
+    }
+
+    /**
+     * Fisher-Yates shuffle of only the bottom n cards, in place.
+     * Used after a reshuffle so cards already in the deck keep their order.
+     */
+    public void shuffleBottom(int n) {
+        for (int i = Math.min(n, count) - 1; i > 0; i--) {
             int j = random.nextInt(i + 1);
-            Card temp = cards.get(i);
-            cards.set(i, cards.get(j));
-            cards.set(j, temp);
+            int a = slot(i);
+            int b = slot(j);
+            Card temp = cards[a];
+            cards[a] = cards[b];
+            cards[b] = temp;
         }
     }
 
     public Card draw() {
-        if (cards.isEmpty()) {
+        if (count == 0) {
             return null;
         }
-        return cards.remove(cards.size() - 1);
+        count--;
+        int top = slot(count);
+        Card card = cards[top];
+        cards[top] = null;
+        return card;
     }
 
     public void addCard(Card card) {
-        cards.add(0, card);
+        ensureCapacity(count + 1);
+        head = (head - 1) & (cards.length - 1);
+        cards[head] = card;
+        count++;
+    }
+
+    /**
+     * Move the first n cards of the list under the deck in one pass.
+     * The list itself is left untouched.
+     */
+    public void addToBottom(List<Card> source, int n) {
+        ensureCapacity(count + n);
+        head = (head - n) & (cards.length - 1);
+        for (int i = 0; i < n; i++) {
+            cards[slot(i)] = source.get(i);
+        }
+        count += n;
+    }
+
+    /**
+     * Append every card, bottom first, to the list.
+     */
+    void copyTo(List<Card> out) {
+        for (int i = 0; i < count; i++) {
+            out.add(cards[slot(i)]);
+        }
     }
 
     public int size() {
-        return cards.size();
+        return count;
     }
 
     public boolean isEmpty() {
-        return cards.isEmpty();
+        return count == 0;
     }
 }
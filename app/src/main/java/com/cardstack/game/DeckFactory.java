@@ -0,0 +1,32 @@
+package com.cardstack.game;
+
+/**
+ * Builds draw piles for tables of any size. A standard deck has 108 cards, enough for
+ * a handful of players; tournament tables shuffle several decks together so everyone
+ * gets a full hand and the draw pile does not run dry every round.
+ */
+public final class DeckFactory {
+    public static final int CARDS_PER_DECK = 108;
+
+    private DeckFactory() {
+    }
+
+    /**
+     * Fewest decks that deal every hand plus the first top card and leave at least as
+     * many cards again to draw from. One deck covers up to seven players at seven cards.
+     */
+    public static int decksFor(int playerCount, int startingCards) {
+        int dealt = playerCount * startingCards + 1;
+        return Math.max(1, (2 * dealt + CARDS_PER_DECK - 1) / CARDS_PER_DECK);
+    }
+
+    /**
+     * deckCount standard decks shuffled into one draw pile.
+     */
+    public static Deck create(int deckCount, GameRandom random) {
+        if (deckCount < 1) {
+            throw new IllegalArgumentException("deckCount must be at least 1: " + deckCount);
+        }
+        return new Deck(random, deckCount);
+    }
+}
@@ -7,22 +7,42 @@ public class GameEngine {
     private final List<Player> players;
     private final Deck deck;
     private final List<Card> discardPile;
-    private int currentPlayerIndex;
-    private boolean clockwise;
+    private final TurnOrder turnOrder;
+    private final HandTable hands; // Every player's hand, by seat
+    private final int deckCount;
     private Card topCard;
     private Card.Color currentWildColor;
-    private GameSettings settings;
+    private final RuleSet rules; // Snapshot taken at construction
     private int progressiveDrawStack; // For Progressive Draw Stacking
     private Card.Type stackedCardType; // Track if stacking Draw Two or Draw Four
     private int lastPlayerIndex; // For Challenge Draw Four
+    private final GameRandom random; // Deck shuffles only, so a seed reproduces the deal
+    private final GameRandom choiceRandom; // Handed to AI drivers
+    private ReplayRecorder recorder;
+    private final PlayResult result = new PlayResult(); // Reused for every playCard call
 
-    public GameEngine(GameSettings settings) {
-        this.settings = settings;
+    public GameEngine(GameRules settings) {
+        this(settings, new SecureGameRandom());
+    }
+
+    public GameEngine(GameRules settings, GameRandom random) {
+        this(settings, random, 1);
+    }
+
+    /**
+     * Game played from deckCount standard decks shuffled together, for large tables;
+     * DeckFactory.decksFor suggests a count for a table size.
+     */
+    public GameEngine(GameRules settings, GameRandom random, int deckCount) {
+        this.rules = RuleSet.of(settings);
+        this.random = random;
+        this.deckCount = deckCount;
+        choiceRandom = random.split();
         players = new ArrayList<>();
-        deck = new Deck();
+        deck = DeckFactory.create(deckCount, random);
         discardPile = new ArrayList<>();
-        currentPlayerIndex = 0;
-        clockwise = true;
+        turnOrder = new TurnOrder();
+        hands = new HandTable();
         currentWildColor = null;
         progressiveDrawStack = 0;
         stackedCardType = null;
@@ -31,10 +51,27 @@ public class GameEngine {
 
     public void addPlayer(Player player) {
         players.add(player);
+        player.seatAt(hands);
+        turnOrder.addSeat();
+    }
+
+    /**
+     * Record every call that changes the game from here on. Set before startGame(), which
+     * then rejects games too big for a replay (see Replay.MAX_COUNT).
+     */
+    public void setRecorder(ReplayRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    public ReplayRecorder getRecorder() {
+        return recorder;
     }
 
     public void startGame() {
-        int startingCards = settings.getStartingCards();
+        if (recorder != null) {
+            recorder.begin(rules, deckCount, players);
+        }
+        int startingCards = rules.getStartingCards();
         
         for (Player player : players) {
             for (int i = 0; i < startingCards; i++) {
@@ -56,16 +93,24 @@ public class GameEngine {
     }
 
     public Player getCurrentPlayer() {
-        return players.get(currentPlayerIndex);
+        return players.get(turnOrder.current());
+    }
+
+    public int getCurrentPlayerIndex() {
+        return turnOrder.current();
     }
 
     public Card getTopCard() {
         if (currentWildColor != null) {
-            return new Card(currentWildColor, topCard.getType(), topCard.getNumber());
+            return topCard.withColor(currentWildColor);
         }
         return topCard;
     }
 
+    public int getTopCardCode() {
+        return getTopCard().getCode();
+    }
+
     public List<Player> getPlayers() {
         return players;
     }
@@ -75,17 +120,25 @@ public class GameEngine {
     }
 
     public boolean canPlayCard(Card card) {
-        return card.canPlayOn(getTopCard(), settings.isActionStackingEnabled());
+        return Card.canPlayOn(card.getCode(), getTopCardCode(), rules.isActionStackingEnabled());
     }
 
-    public String playCard(Card card, Card.Color wildColor) {
+    public PlayResult playCard(Card card, Card.Color wildColor) {
         Player currentPlayer = getCurrentPlayer();
         
         if (!canPlayCard(card)) {
-            return "Cannot play that card!";
+            return result.set(PlayResult.Kind.INVALID, 0);
+        }
+        if (recorder != null) {
+            boolean colored = wildColor != null && Card.isWild(card.getCode());
+            recorder.record(Replay.OP_PLAY, colored ? card.withColor(wildColor).getCode() : card.getCode());
         }
+        return applyPlay(currentPlayer, card, wildColor);
+    }
 
-        lastPlayerIndex = currentPlayerIndex;
+    // playCard after validation and recording; also the second half of a jump-in
+    private PlayResult applyPlay(Player currentPlayer, Card card, Card.Color wildColor) {
+        lastPlayerIndex = turnOrder.current();
         currentPlayer.removeCard(card);
         discardPile.add(card);
         topCard = card;
@@ -97,75 +150,82 @@ public class GameEngine {
         }
 
         if (currentPlayer.hasWon()) {
-            return currentPlayer.getDisplayName() + " wins! 🎉";
+            return result.set(PlayResult.Kind.WIN, turnOrder.current());
         }
 
-        String effectResult = processCardEffect(card);
+        processCardEffect(card);
         
         // Don't advance turn if special effect (Seven-Zero) needs handling
-        if (effectResult == null || !effectResult.startsWith("SPECIAL:")) {
-            nextPlayer();
+        if (!result.isSevenZero()) {
+            advanceTurn();
         }
 
-        return effectResult;
+        return result;
     }
 
-    private String processCardEffect(Card card) {
+    private void processCardEffect(Card card) {
+        result.set(PlayResult.Kind.NEXT_TURN, 0);
         switch (card.getType()) {
             case SKIP:
-                nextPlayer();
+                advanceTurn();
                 break;
             case REVERSE:
                 if (players.size() == 2) {
-                    nextPlayer();
+                    advanceTurn();
                 } else {
-                    clockwise = !clockwise;
+                    turnOrder.reverse();
                 }
                 break;
             case DRAW_TWO:
-                if (settings.isProgressiveDrawEnabled() && progressiveDrawStack >= 0) {
+                if (rules.isProgressiveDrawEnabled() && progressiveDrawStack >= 0) {
                     // Progressive Draw Stacking: Stack the draw count
                     progressiveDrawStack += 2;
                     stackedCardType = Card.Type.DRAW_TWO;
-                    return "PROGRESSIVE:DRAW_TWO:" + progressiveDrawStack;
+                    result.setDrawStacked(progressiveDrawStack, stackedCardType);
                 } else {
-                    nextPlayer();
+                    advanceTurn();
                     Player nextPlayer = getCurrentPlayer();
-                    drawCards(nextPlayer, 2);
+                    dealCards(nextPlayer, 2);
                 }
                 break;
             case WILD_DRAW_FOUR:
-                if (settings.isProgressiveDrawEnabled() && progressiveDrawStack >= 0) {
+                if (rules.isProgressiveDrawEnabled() && progressiveDrawStack >= 0) {
                     // Progressive Draw Stacking: Stack the draw count
                     progressiveDrawStack += 4;
                     stackedCardType = Card.Type.WILD_DRAW_FOUR;
-                    return "PROGRESSIVE:WILD_DRAW_FOUR:" + progressiveDrawStack;
+                    result.setDrawStacked(progressiveDrawStack, stackedCardType);
                 } else {
                     // Check if Challenge Draw Four is enabled
-                    if (settings.isChallengeDrawFourEnabled()) {
-                        return "CHALLENGE_AVAILABLE:" + lastPlayerIndex;
+                    if (rules.isChallengeDrawFourEnabled()) {
+                        result.set(PlayResult.Kind.CHALLENGE_AVAILABLE, lastPlayerIndex);
                     } else {
-                        nextPlayer();
+                        advanceTurn();
                         Player nextPlayerWild = getCurrentPlayer();
-                        drawCards(nextPlayerWild, 4);
+                        dealCards(nextPlayerWild, 4);
                     }
                 }
                 break;
             case NUMBER:
                 // Seven-Zero Rule
-                if (settings.isSevenZeroRuleEnabled()) {
+                if (rules.isSevenZeroRuleEnabled()) {
                     if (card.getNumber() == 7) {
-                        return "SPECIAL:SEVEN_SWAP";
+                        result.set(PlayResult.Kind.SEVEN_SWAP, 0);
                     } else if (card.getNumber() == 0) {
-                        return "SPECIAL:ZERO_ROTATE";
+                        result.set(PlayResult.Kind.ZERO_ROTATE, 0);
                     }
                 }
                 break;
         }
-        return null;
     }
 
     public void drawCards(Player player, int count) {
+        if (recorder != null) {
+            recorder.record(Replay.OP_DRAW_CARDS, players.indexOf(player), count);
+        }
+        dealCards(player, count);
+    }
+
+    private void dealCards(Player player, int count) {
         for (int i = 0; i < count; i++) {
             Card card = deck.draw();
             if (card == null) {
@@ -180,25 +240,36 @@ public class GameEngine {
 
     private void reshuffleDeck() {
         if (discardPile.size() > 1) {
-            for (int i = 0; i < discardPile.size() - 1; i++) {
-                deck.addCard(discardPile.get(i));
-            }
-            Card top = discardPile.get(discardPile.size() - 1);
+            // Everything but the top card goes under the deck in one bulk copy,
+            // then only those cards are shuffled
+            int count = discardPile.size() - 1;
+            Card top = discardPile.get(count);
+            deck.addToBottom(discardPile, count);
+            deck.shuffleBottom(count);
             discardPile.clear();
             discardPile.add(top);
-            deck.shuffle();
         }
     }
 
     public void nextPlayer() {
-        if (clockwise) {
-            currentPlayerIndex = (currentPlayerIndex + 1) % players.size();
-        } else {
-            currentPlayerIndex = (currentPlayerIndex - 1 + players.size()) % players.size();
+        if (recorder != null) {
+            recorder.record(Replay.OP_NEXT_PLAYER);
         }
+        advanceTurn();
     }
 
+    private void advanceTurn() {
+        turnOrder.advance();
+    }
+
+    /**
+     * Top card of the deck, reshuffling if needed. Callers add it to the current
+     * player's hand; that is how a recorded draw is replayed.
+     */
     public Card drawCard() {
+        if (recorder != null) {
+            recorder.record(Replay.OP_DRAW);
+        }
         Card card = deck.draw();
         if (card == null) {
             reshuffleDeck();
@@ -217,16 +288,22 @@ public class GameEngine {
     }
 
     public void resolveProgressiveStack() {
+        if (recorder != null) {
+            recorder.record(Replay.OP_RESOLVE_STACK);
+        }
         if (progressiveDrawStack > 0) {
-            nextPlayer();
+            advanceTurn();
             Player targetPlayer = getCurrentPlayer();
-            drawCards(targetPlayer, progressiveDrawStack);
+            dealCards(targetPlayer, progressiveDrawStack);
             progressiveDrawStack = 0;
             stackedCardType = null;
         }
     }
 
     public void resetProgressiveStack() {
+        if (recorder != null) {
+            recorder.record(Replay.OP_RESET_STACK);
+        }
         progressiveDrawStack = 0;
         stackedCardType = null;
     }
@@ -236,41 +313,21 @@ public class GameEngine {
         if (targetPlayerIndex < 0 || targetPlayerIndex >= players.size()) {
             return;
         }
+        if (recorder != null) {
+            recorder.record(Replay.OP_SWAP, targetPlayerIndex);
+        }
         
-        Player currentPlayer = getCurrentPlayer();
-        Player targetPlayer = players.get(targetPlayerIndex);
-        
-        List<Card> tempHand = new ArrayList<>(currentPlayer.getHand());
-        currentPlayer.getHand().clear();
-        currentPlayer.getHand().addAll(targetPlayer.getHand());
-        targetPlayer.getHand().clear();
-        targetPlayer.getHand().addAll(tempHand);
+        // The two seats exchange hand slots; no card is copied
+        hands.swap(turnOrder.current(), targetPlayerIndex);
     }
 
     public void rotateAllHands() {
-        if (players.size() < 2) {
-            return;
-        }
-
-        if (clockwise) {
-            // Rotate clockwise: each player gives hand to next player
-            List<Card> firstHand = new ArrayList<>(players.get(0).getHand());
-            for (int i = 0; i < players.size() - 1; i++) {
-                players.get(i).getHand().clear();
-                players.get(i).getHand().addAll(players.get(i + 1).getHand());
-            }
-            players.get(players.size() - 1).getHand().clear();
-            players.get(players.size() - 1).getHand().addAll(firstHand);
-        } else {
-            // Rotate counter-clockwise: each player gives hand to previous player
-            List<Card> lastHand = new ArrayList<>(players.get(players.size() - 1).getHand());
-            for (int i = players.size() - 1; i > 0; i--) {
-                players.get(i).getHand().clear();
-                players.get(i).getHand().addAll(players.get(i - 1).getHand());
-            }
-            players.get(0).getHand().clear();
-            players.get(0).getHand().addAll(lastHand);
+        if (recorder != null) {
+            recorder.record(Replay.OP_ROTATE);
         }
+        // Each player takes the hand of the player after them in the direction of play,
+        // as a permutation of hand slots: O(players) whatever the hand sizes
+        hands.rotate(turnOrder);
     }
 
     // Challenge Draw Four methods
@@ -292,25 +349,28 @@ public class GameEngine {
     }
 
     public void executeChallengeResult(boolean challengeSucceeds, int challengedPlayerIndex) {
+        if (recorder != null) {
+            recorder.record(Replay.OP_CHALLENGE, challengeSucceeds ? 1 : 0, challengedPlayerIndex);
+        }
         if (challengeSucceeds) {
             // Challenger wins: challenged player draws 4
             Player challengedPlayer = players.get(challengedPlayerIndex);
-            drawCards(challengedPlayer, 4);
+            dealCards(challengedPlayer, 4);
         } else {
             // Challenger loses: they draw 6 instead of 4
-            nextPlayer();
+            advanceTurn();
             Player challenger = getCurrentPlayer();
-            drawCards(challenger, 6);
+            dealCards(challenger, 6);
         }
     }
 
     // Jump-In Rule methods
     public boolean canJumpIn(Card card, int playerIndex) {
-        if (!settings.isJumpInEnabled()) {
+        if (!rules.isJumpInEnabled()) {
             return false;
         }
         
-        if (playerIndex == currentPlayerIndex) {
+        if (playerIndex == turnOrder.current()) {
             return false; // Can't jump in on your own turn
         }
 
@@ -322,40 +382,71 @@ public class GameEngine {
                card.getNumber() == top.getNumber();
     }
 
-    public void jumpInPlay(int playerIndex, Card card) {
-        currentPlayerIndex = playerIndex;
-        Player player = getCurrentPlayer();
-        player.removeCard(card);
-        discardPile.add(card);
-        topCard = card;
-        currentWildColor = null;
+    /**
+     * The player takes the turn out of order and plays the card as if it were theirs:
+     * they can win with it, its effect applies and play continues from them. Check the
+     * card with canJumpIn first.
+     */
+    public PlayResult jumpInPlay(int playerIndex, Card card) {
+        if (recorder != null) {
+            recorder.record(Replay.OP_JUMP_IN, playerIndex, card.getCode());
+        }
+        turnOrder.setCurrent(playerIndex);
+        return applyPlay(getCurrentPlayer(), card, null);
     }
 
     // Force Play check
     public boolean hasPlayableCard() {
-        Player currentPlayer = getCurrentPlayer();
-        for (Card card : currentPlayer.getHand()) {
-            if (canPlayCard(card)) {
-                return true;
-            }
-        }
-        return false;
+        return getCurrentPlayer().getHand().hasPlayable(getTopCardCode(), rules.isActionStackingEnabled());
+    }
+
+    /**
+     * Playable faces in the player's hand as a Hand bit mask; test cards with Hand.isInMask.
+     */
+    public long getPlayableMask(Player player) {
+        return player.getHand().playableMask(getTopCardCode(), rules.isActionStackingEnabled());
     }
 
     public boolean isDrawAllowed() {
-        if (settings.isForcePlayEnabled()) {
+        if (rules.isForcePlayEnabled()) {
             // Can't draw if you have a playable card
             return !hasPlayableCard();
         }
         // Draw on no play setting
-        return settings.isDrawOnNoPlayEnabled();
+        return rules.isDrawOnNoPlayEnabled();
     }
 
-    public GameSettings getSettings() {
-        return settings;
+    public RuleSet getRules() {
+        return rules;
     }
 
     public int getLastPlayerIndex() {
         return lastPlayerIndex;
     }
+
+    public boolean isClockwise() {
+        return turnOrder.isClockwise();
+    }
+
+    public int getDeckCount() {
+        return deckCount;
+    }
+
+    // Read by GameState.capture
+    Deck getDeck() {
+        return deck;
+    }
+
+    List<Card> getDiscardPile() {
+        return discardPile;
+    }
+
+    /**
+     * Randomness for AI drivers (e.g. Seven-Zero swap targets). A stream of its own, split
+     * off at construction, so choices never shift the deck's shuffles: a seeded game is
+     * reproducible end to end, and a replay, which makes no choices, stays in step.
+     */
+    public GameRandom getRandom() {
+        return choiceRandom;
+    }
 }
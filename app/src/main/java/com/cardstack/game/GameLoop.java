@@ -0,0 +1,390 @@
+package com.cardstack.game;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.widget.Toast;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Owns the GameEngine on a single background thread. Human actions are queued onto that
+ * thread, AI turns are computed there, and after every change an immutable GameSnapshot
+ * is posted to the main looper for the UI to draw. The UI never touches the engine, so a
+ * slow AI can only delay the next snapshot, not a frame.
+ *
+ * Every listener callback runs on the main thread, in the order the loop produced it.
+ *
+ * If the engine carries a ReplayRecorder, the game is written to the replay file when it
+ * ends or is abandoned for a new one, so the last game can be attached to a bug report.
+ */
+public class GameLoop {
+    // Pause between AI moves so the player can follow along
+    private static final long AI_TURN_DELAY_MS = 1000;
+    // Same safety limit the AI uses for Draw to Match
+    private static final int MAX_DRAW_TO_MATCH = 20;
+    // The human always sits at index 0
+    private static final int HUMAN_INDEX = 0;
+    // Search time per Smart AI move, on top of the turn delay
+    private static final long SMART_AI_BUDGET_MS = 100;
+
+    public interface Listener {
+        void onSnapshot(GameSnapshot snapshot);
+
+        void onMessage(String message, int toastLength);
+
+        // Human drew cards from the deck (for stats)
+        void onCardsDrawn(int count);
+
+        // The engine accepted the human's card (for stats)
+        void onCardPlayed(Card card);
+
+        // Human played a seven with the Seven-Zero rule on; answer with swapHands()
+        void onSevenSwap();
+
+        // Human played a Wild Draw Four that may be challenged; answer with challengeDrawFour() or acceptDrawFour()
+        void onChallengeDrawFour(int challengedPlayerIndex);
+
+        void onGameOver(int winnerIndex);
+    }
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Listener listener;
+    private final File replayFile;
+    // Worker threads are only started by the first search. Searches draw millions of numbers,
+    // so they run on SplitMix seeded once from SecureRandom, like the deal in MainActivity
+    private final MonteCarloAI smartAI = new MonteCarloAI(SMART_AI_BUDGET_MS,
+            new SplitMixGameRandom(new SecureGameRandom().nextLong()));
+
+    // Only touched on the loop thread
+    private GameEngine engine;
+    private HeadlessGame ai;
+    private ScheduledFuture<?> pendingAITurn;
+    private boolean gameOver;
+    // Answer the human owes before any other move; stale taps are ignored until then
+    private Decision pendingDecision = Decision.NONE;
+
+    private volatile boolean shutDown;
+
+    public GameLoop(Listener listener, File replayFile) {
+        this.listener = listener;
+        this.replayFile = replayFile;
+    }
+
+    /**
+     * Start a new game on the loop thread. Players must already be added to the engine;
+     * the caller must not touch the engine after handing it over. With useSmartAI the AI
+     * players pick their cards with MonteCarloAI instead of the greedy choice.
+     */
+    public void newGame(GameEngine newEngine, boolean useSmartAI) {
+        executor.execute(() -> {
+            cancelAITurn();
+            if (engine != null && !gameOver) {
+                saveReplay(); // Abandoned game
+            }
+            engine = newEngine;
+            gameOver = false;
+            pendingDecision = Decision.NONE;
+            ai = new HeadlessGame(engine);
+            ai.setTurnListener(new AITurnMessages());
+            if (useSmartAI) {
+                ai.setStrategy(smartAI);
+            }
+            engine.startGame();
+            publish();
+            scheduleAITurn();
+        });
+    }
+
+    public void playCard(Card card, Card.Color color) {
+        executor.execute(() -> {
+            if (!isHumanTurn()) {
+                return;
+            }
+
+            PlayResult result = engine.playCard(card, color);
+            if (result.getKind() != PlayResult.Kind.INVALID) {
+                post(() -> listener.onCardPlayed(card));
+            }
+            switch (result.getKind()) {
+                case WIN:
+                    gameOver = true;
+                    saveReplay();
+                    publish();
+                    int winnerIndex = result.getValue();
+                    post(() -> listener.onGameOver(winnerIndex));
+                    return;
+                case SEVEN_SWAP:
+                    pendingDecision = Decision.SEVEN_SWAP;
+                    publish();
+                    post(listener::onSevenSwap);
+                    return;
+                case CHALLENGE_AVAILABLE:
+                    pendingDecision = Decision.CHALLENGE;
+                    publish();
+                    int challengedIndex = result.getValue();
+                    post(() -> listener.onChallengeDrawFour(challengedIndex));
+                    return;
+                case ZERO_ROTATE:
+                    engine.rotateAllHands();
+                    message("All hands rotated!", Toast.LENGTH_LONG);
+                    engine.nextPlayer();
+                    break;
+                case DRAW_STACKED:
+                    message("Draw cards stacked! Total: " + result.getValue() + " cards", Toast.LENGTH_SHORT);
+                    engine.nextPlayer();
+                    break;
+                default:
+                    break;
+            }
+            publish();
+            scheduleAITurn();
+        });
+    }
+
+    public void drawCard() {
+        executor.execute(() -> {
+            if (!isHumanTurn()) {
+                return;
+            }
+            GameRules rules = engine.getRules();
+            Player human = engine.getCurrentPlayer();
+
+            // Check if drawing is allowed based on Force Play and Draw on No Play settings
+            if (!engine.isDrawAllowed()) {
+                if (rules.isForcePlayEnabled()) {
+                    message("Force Play: You must play a card!", Toast.LENGTH_SHORT);
+                } else {
+                    message("Draw on No Play is disabled - turn skipped", Toast.LENGTH_SHORT);
+                    engine.nextPlayer();
+                }
+            } else if (rules.isDrawToMatchEnabled()) {
+                // Draw to Match: Keep drawing until player gets a playable card
+                int cardsDrawn = 0;
+                boolean foundPlayable = false;
+                while (!foundPlayable && cardsDrawn < MAX_DRAW_TO_MATCH) {
+                    Card card = engine.drawCard();
+                    if (card == null) {
+                        break; // No more cards in deck
+                    }
+                    cardsDrawn++;
+                    human.addCard(card);
+                    foundPlayable = engine.canPlayCard(card);
+                }
+                reportDrawn(cardsDrawn);
+
+                if (foundPlayable) {
+                    message("Drew " + cardsDrawn + " card(s) - you can play now!", Toast.LENGTH_SHORT);
+                } else {
+                    message("Drew " + cardsDrawn + " card(s) - no playable cards, turn skipped", Toast.LENGTH_SHORT);
+                    engine.nextPlayer();
+                }
+            } else {
+                // Standard rule: Draw one card
+                Card card = engine.drawCard();
+                if (card != null) {
+                    human.addCard(card);
+                    reportDrawn(1);
+                    if (engine.canPlayCard(card)) {
+                        message("Card drawn - you can play it!", Toast.LENGTH_SHORT);
+                    } else if (rules.isDrawOnNoPlayEnabled()) {
+                        message("Card drawn - cannot play, turn skipped", Toast.LENGTH_SHORT);
+                        engine.nextPlayer();
+                    } else {
+                        message("Card drawn - cannot play", Toast.LENGTH_SHORT);
+                    }
+                }
+            }
+            publish();
+            scheduleAITurn();
+        });
+    }
+
+    // Seven-Zero Rule: human picked the player to swap hands with
+    public void swapHands(int targetIndex) {
+        executor.execute(() -> {
+            if (!resolve(Decision.SEVEN_SWAP)) {
+                return;
+            }
+            engine.swapHandsWithPlayer(targetIndex);
+            message("Hands swapped with " + engine.getPlayers().get(targetIndex).getDisplayName(), Toast.LENGTH_LONG);
+            engine.nextPlayer();
+            publish();
+            scheduleAITurn();
+        });
+    }
+
+    public void challengeDrawFour(int challengedPlayerIndex) {
+        executor.execute(() -> {
+            if (!resolve(Decision.CHALLENGE)) {
+                return;
+            }
+            boolean challengeSucceeds = engine.canChallengeDrawFour(challengedPlayerIndex);
+            if (challengeSucceeds) {
+                String name = engine.getPlayers().get(challengedPlayerIndex).getDisplayName();
+                message("Challenge successful! " + name + " had a matching color and draws 4!", Toast.LENGTH_LONG);
+            } else {
+                message("Challenge failed! You draw 6 cards instead!", Toast.LENGTH_LONG);
+            }
+            engine.executeChallengeResult(challengeSucceeds, challengedPlayerIndex);
+            publish();
+            scheduleAITurn();
+        });
+    }
+
+    public void acceptDrawFour() {
+        executor.execute(() -> {
+            if (!resolve(Decision.CHALLENGE)) {
+                return;
+            }
+            engine.nextPlayer();
+            engine.drawCards(engine.getCurrentPlayer(), 4);
+            message("Drew 4 cards", Toast.LENGTH_SHORT);
+            publish();
+            scheduleAITurn();
+        });
+    }
+
+    /**
+     * Stop the loop thread and drop any callbacks not yet delivered. Call from onDestroy.
+     */
+    public void shutdown() {
+        shutDown = true;
+        executor.shutdownNow();
+        smartAI.shutdown();
+        mainHandler.removeCallbacksAndMessages(null);
+    }
+
+    private boolean isHumanTurn() {
+        return engine != null && !gameOver && pendingDecision == Decision.NONE
+                && !engine.getCurrentPlayer().isAI();
+    }
+
+    // Clear the pending decision if it is the one being answered
+    private boolean resolve(Decision decision) {
+        if (engine == null || gameOver || pendingDecision != decision) {
+            return false;
+        }
+        pendingDecision = Decision.NONE;
+        return true;
+    }
+
+    private void scheduleAITurn() {
+        if (engine.getCurrentPlayer().isAI()) {
+            pendingAITurn = executor.schedule(this::playAITurn, AI_TURN_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void cancelAITurn() {
+        if (pendingAITurn != null) {
+            pendingAITurn.cancel(false);
+            pendingAITurn = null;
+        }
+    }
+
+    private void playAITurn() {
+        pendingAITurn = null;
+        if (!engine.getCurrentPlayer().isAI()) {
+            return;
+        }
+
+        gameOver = ai.playTurn();
+        publish();
+        if (gameOver) {
+            saveReplay();
+            int winnerIndex = ai.getWinnerIndex();
+            post(() -> listener.onGameOver(winnerIndex));
+        } else {
+            scheduleAITurn();
+        }
+    }
+
+    private void saveReplay() {
+        ReplayRecorder recorder = engine.getRecorder();
+        if (recorder == null) {
+            return;
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(replayFile)))) {
+            recorder.toReplay(engine).write(out);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void publish() {
+        GameSnapshot snapshot = GameSnapshot.capture(engine, HUMAN_INDEX);
+        post(() -> listener.onSnapshot(snapshot));
+    }
+
+    private void reportDrawn(int count) {
+        post(() -> listener.onCardsDrawn(count));
+    }
+
+    private void message(String message, int toastLength) {
+        post(() -> listener.onMessage(message, toastLength));
+    }
+
+    private void post(Runnable callback) {
+        mainHandler.post(() -> {
+            if (!shutDown) {
+                callback.run();
+            }
+        });
+    }
+
+    private enum Decision {
+        NONE,
+        SEVEN_SWAP, // Pick a player to swap hands with
+        CHALLENGE   // Challenge or accept a Wild Draw Four
+    }
+
+    // Turns each AI step into the same toasts the player used to see
+    private class AITurnMessages implements HeadlessGame.TurnListener {
+        @Override
+        public void onTurnSkipped(Player player) {
+            message(player.getDisplayName() + " has no playable card - turn skipped", Toast.LENGTH_SHORT);
+        }
+
+        @Override
+        public void onCardsDrawn(Player player, int count) {
+            if (count == 1) {
+                message(player.getDisplayName() + " drew a card", Toast.LENGTH_SHORT);
+            } else {
+                message(player.getDisplayName() + " drew " + count + " card(s)", Toast.LENGTH_SHORT);
+            }
+        }
+
+        @Override
+        public void onCardPlayed(Player player, Card card) {
+            message(player.getDisplayName() + " played " + card.getDisplayText(), Toast.LENGTH_SHORT);
+        }
+
+        @Override
+        public void onHandsSwapped(Player player, int targetIndex) {
+            message("Seven Rule: " + player.getDisplayName() + " swapped hands!", Toast.LENGTH_LONG);
+        }
+
+        @Override
+        public void onHandsRotated() {
+            message("Zero Rule: All hands rotated!", Toast.LENGTH_LONG);
+        }
+
+        @Override
+        public void onDrawStacked(int stackTotal) {
+            message("Draw cards stacked! Total: " + stackTotal + " cards", Toast.LENGTH_SHORT);
+        }
+
+        @Override
+        public void onDrawFourAccepted(Player player) {
+            message(player.getDisplayName() + " drew 4 cards", Toast.LENGTH_SHORT);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.cardstack.game;
+
+/**
+ * Source of randomness for shuffling and random AI choices.
+ * Games, simulations and replays deal from SplitMixGameRandom, which is fast, can be
+ * seeded, and splits into independent streams. The app seeds each game from
+ * SecureGameRandom, so a deal can't be predicted but its replay still reproduces it.
+ */
+public interface GameRandom {
+    /**
+     * Uniform value in [0, bound).
+     */
+    int nextInt(int bound);
+
+    /**
+     * Uniform 64-bit value, e.g. the seed of a recorded game.
+     */
+    long nextLong();
+
+    /**
+     * New generator whose sequence is independent of this one, e.g. one per game or thread.
+     */
+    GameRandom split();
+}
@@ -0,0 +1,37 @@
+package com.cardstack.game;
+
+/**
+ * Read-only view of the rule options the engine needs.
+ * Implemented by GameSettings on device and by RuleSet, the immutable snapshot
+ * GameEngine takes of whichever it is given, so the engine never touches an Android Context.
+ */
+public interface GameRules {
+    // Bit flags used when a whole rule combination has to fit in one int
+    int RULE_ACTION_STACKING = 1;
+    int RULE_DRAW_ON_NO_PLAY = 1 << 1;
+    int RULE_JUMP_IN = 1 << 2;
+    int RULE_SEVEN_ZERO = 1 << 3;
+    int RULE_PROGRESSIVE_DRAW = 1 << 4;
+    int RULE_FORCE_PLAY = 1 << 5;
+    int RULE_CHALLENGE_DRAW_FOUR = 1 << 6;
+    int RULE_DRAW_TO_MATCH = 1 << 7;
+    int RULE_COUNT = 8;
+
+    int getStartingCards();
+
+    boolean isActionStackingEnabled();
+
+    boolean isDrawOnNoPlayEnabled();
+
+    boolean isJumpInEnabled();
+
+    boolean isSevenZeroRuleEnabled();
+
+    boolean isProgressiveDrawEnabled();
+
+    boolean isForcePlayEnabled();
+
+    boolean isChallengeDrawFourEnabled();
+
+    boolean isDrawToMatchEnabled();
+}
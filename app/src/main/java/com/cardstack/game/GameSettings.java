@@ -3,7 +3,7 @@ package com.cardstack.game;
 import android.content.Context;
 import android.content.SharedPreferences;
 
-public class GameSettings {
+public class GameSettings implements GameRules {
     private static final String PREFS_NAME = "CardStackSettings";
     private static final String KEY_STARTING_CARDS = "starting_cards";
     private static final String KEY_ALLOW_ACTION_STACKING = "allow_action_stacking";
@@ -14,6 +14,7 @@ public class GameSettings {
     private static final String KEY_FORCE_PLAY = "force_play";
     private static final String KEY_CHALLENGE_DRAW_FOUR = "challenge_draw_four";
     private static final String KEY_DRAW_TO_MATCH = "draw_to_match";
+    private static final String KEY_SMART_AI = "smart_ai";
     
     // Legacy key for backward compatibility migration only
     // This old key name is checked once to migrate existing user settings,
@@ -32,6 +33,7 @@ public class GameSettings {
     public static final boolean DEFAULT_FORCE_PLAY = false;
     public static final boolean DEFAULT_CHALLENGE_DRAW_FOUR = false;
     public static final boolean DEFAULT_DRAW_TO_MATCH = false;
+    public static final boolean DEFAULT_SMART_AI = false;
     
     public GameSettings(Context context) {
         prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
@@ -52,6 +54,7 @@ public class GameSettings {
     }
     
     // Starting cards (5-10)
+    @Override
     public int getStartingCards() {
         return prefs.getInt(KEY_STARTING_CARDS, DEFAULT_STARTING_CARDS);
     }
@@ -61,6 +64,7 @@ public class GameSettings {
     }
     
     // Action card stacking (Skip on Skip, Reverse on Reverse, Draw Two on Draw Two)
+    @Override
     public boolean isActionStackingEnabled() {
         return prefs.getBoolean(KEY_ALLOW_ACTION_STACKING, DEFAULT_ACTION_STACKING);
     }
@@ -70,6 +74,7 @@ public class GameSettings {
     }
     
     // Draw card when you can't play
+    @Override
     public boolean isDrawOnNoPlayEnabled() {
         return prefs.getBoolean(KEY_DRAW_ON_NO_PLAY, DEFAULT_DRAW_ON_NO_PLAY);
     }
@@ -79,6 +84,7 @@ public class GameSettings {
     }
     
     // Jump-in rule (play same card out of turn)
+    @Override
     public boolean isJumpInEnabled() {
         return prefs.getBoolean(KEY_JUMP_IN_ENABLED, DEFAULT_JUMP_IN);
     }
@@ -88,6 +94,7 @@ public class GameSettings {
     }
     
     // Seven-Zero rule (7 = swap hands, 0 = rotate hands)
+    @Override
     public boolean isSevenZeroRuleEnabled() {
         return prefs.getBoolean(KEY_SEVEN_ZERO_RULE, DEFAULT_SEVEN_ZERO);
     }
@@ -97,6 +104,7 @@ public class GameSettings {
     }
     
     // Progressive Draw (Draw cards stack)
+    @Override
     public boolean isProgressiveDrawEnabled() {
         return prefs.getBoolean(KEY_DRAW_STACKING, DEFAULT_DRAW_STACKING);
     }
@@ -106,6 +114,7 @@ public class GameSettings {
     }
     
     // Force play (must play if you have a valid card)
+    @Override
     public boolean isForcePlayEnabled() {
         return prefs.getBoolean(KEY_FORCE_PLAY, DEFAULT_FORCE_PLAY);
     }
@@ -115,6 +124,7 @@ public class GameSettings {
     }
     
     // Challenge Wild Draw Four
+    @Override
     public boolean isChallengeDrawFourEnabled() {
         return prefs.getBoolean(KEY_CHALLENGE_DRAW_FOUR, DEFAULT_CHALLENGE_DRAW_FOUR);
     }
@@ -124,6 +134,7 @@ public class GameSettings {
     }
     
     // Draw to Match (must draw until you get a playable card)
+    @Override
     public boolean isDrawToMatchEnabled() {
         return prefs.getBoolean(KEY_DRAW_TO_MATCH, DEFAULT_DRAW_TO_MATCH);
     }
@@ -132,6 +143,22 @@ public class GameSettings {
         prefs.edit().putBoolean(KEY_DRAW_TO_MATCH, enabled).apply();
     }
     
+    // Smart AI (opponents search with MonteCarloAI instead of the greedy choice)
+    public boolean isSmartAIEnabled() {
+        return prefs.getBoolean(KEY_SMART_AI, DEFAULT_SMART_AI);
+    }
+    
+    public void setSmartAIEnabled(boolean enabled) {
+        prefs.edit().putBoolean(KEY_SMART_AI, enabled).apply();
+    }
+    
+    /**
+     * The enabled rules as GameRules.RULE_* bits, e.g. for grouping stored games by rule set.
+     */
+    public int getRuleMask() {
+        return RuleSet.maskOf(this);
+    }
+    
     // Reset to defaults
     public void resetToDefaults() {
         prefs.edit().clear().apply();
@@ -0,0 +1,116 @@
+package com.cardstack.game;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable copy of everything the table screen shows, taken on the game loop thread
+ * after each move and handed to the UI. Card objects are shared flyweights, so only
+ * the arrays are copied.
+ *
+ * The viewer's own hand is included; other players are reduced to name and card count.
+ */
+public final class GameSnapshot {
+    private final Card topCard;
+    private final int currentPlayerIndex;
+    private final boolean currentPlayerAI;
+    private final String[] playerNames;
+    private final int[] cardCounts;
+    private final int viewerIndex;
+    private final List<Card> viewerHand;
+    private final long viewerPlayableMask;
+    private final int deckSize;
+    private final RuleSet rules;
+
+    private GameSnapshot(GameEngine engine, int viewerIndex) {
+        List<Player> players = engine.getPlayers();
+        Player viewer = players.get(viewerIndex);
+
+        topCard = engine.getTopCard();
+        currentPlayerIndex = players.indexOf(engine.getCurrentPlayer());
+        currentPlayerAI = engine.getCurrentPlayer().isAI();
+
+        playerNames = new String[players.size()];
+        cardCounts = new int[players.size()];
+        for (int i = 0; i < players.size(); i++) {
+            playerNames[i] = players.get(i).getDisplayName();
+            cardCounts[i] = players.get(i).getCardCount();
+        }
+
+        this.viewerIndex = viewerIndex;
+        viewerHand = Collections.unmodifiableList(Arrays.asList(viewer.getHand().toArray(new Card[0])));
+        viewerPlayableMask = engine.getPlayableMask(viewer);
+        deckSize = engine.getDeckSize();
+        rules = engine.getRules();
+    }
+
+    /**
+     * Capture the engine as seen by the given player. Must be called on the thread that owns the engine.
+     */
+    public static GameSnapshot capture(GameEngine engine, int viewerIndex) {
+        return new GameSnapshot(engine, viewerIndex);
+    }
+
+    public Card getTopCard() {
+        return topCard;
+    }
+
+    public int getCurrentPlayerIndex() {
+        return currentPlayerIndex;
+    }
+
+    public String getCurrentPlayerName() {
+        return playerNames[currentPlayerIndex];
+    }
+
+    public boolean isViewerTurn() {
+        return currentPlayerIndex == viewerIndex;
+    }
+
+    public boolean isCurrentPlayerAI() {
+        return currentPlayerAI;
+    }
+
+    public int getPlayerCount() {
+        return playerNames.length;
+    }
+
+    public String getPlayerName(int index) {
+        return playerNames[index];
+    }
+
+    public int getCardCount(int index) {
+        return cardCounts[index];
+    }
+
+    public int getViewerIndex() {
+        return viewerIndex;
+    }
+
+    public List<Card> getViewerHand() {
+        return viewerHand;
+    }
+
+    /**
+     * Playable faces in the viewer's hand against the top card; test cards with Hand.isInMask.
+     */
+    public long getViewerPlayableMask() {
+        return viewerPlayableMask;
+    }
+
+    public boolean viewerHasPlayableCard() {
+        return viewerPlayableMask != 0;
+    }
+
+    public int getDeckSize() {
+        return deckSize;
+    }
+
+    /**
+     * Rules of the game this snapshot belongs to, which may differ from the current settings.
+     */
+    public RuleSet getRules() {
+        return rules;
+    }
+}
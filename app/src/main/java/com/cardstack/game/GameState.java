@@ -0,0 +1,705 @@
+package com.cardstack.game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact game state for search and simulation: hands as per-face counts, deck and
+ * discard pile as byte arrays of card codes, and the turn fields as plain ints.
+ * copyFrom() is a handful of array copies with no allocation, and apply()/undo() step
+ * through moves with an undo journal, so a search can explore thousands of lines per
+ * move from one captured position.
+ *
+ * Follows the turn flow HeadlessGame plays on a GameEngine: a Draw Two or Wild Draw
+ * Four skips the player it hits, a stacked draw under Progressive Draw only skips, and
+ * a Wild Draw Four under Challenge Draw Four is challenged or accepted by the player
+ * whose turn it is afterwards. Choices the engine leaves to its caller (the Seven-Zero
+ * swap target, the challenge, the color of a wild, jumping in) are explicit moves here;
+ * after a jump-in, play continues from the player who jumped in.
+ *
+ * Hand slots use the Hand bit layout (code & 63), so a presence mask per player feeds
+ * straight into Hand.playableMask.
+ */
+public final class GameState {
+    // What the current player has to decide before the turn can go on
+    public static final int PENDING_NONE = 0;
+    public static final int PENDING_SWAP = 1; // Played a seven under Seven-Zero; must SWAP
+    public static final int PENDING_CHALLENGE = 2; // Must CHALLENGE or ACCEPT a Wild Draw Four
+    public static final int PENDING_DRAWN = 3; // Drew a playable card (pendingArg); must PLAY it
+
+    private static final int SLOTS = 64;
+    private static final int WILD_CODE = Card.Color.WILD.ordinal() << 4;
+    // Same safety limit HeadlessGame uses for Draw to Match
+    private static final int MAX_DRAW_TO_MATCH = 20;
+
+    // Undo frame: the fields below, FRAME_SIZE ints per applied move
+    private static final int F_CURRENT = 0;
+    private static final int F_DIRECTION = 1;
+    private static final int F_TOP = 2;
+    private static final int F_STACK = 3;
+    private static final int F_PENDING = 4;
+    private static final int F_PENDING_ARG = 5;
+    private static final int F_LAST = 6;
+    private static final int F_WINNER = 7;
+    private static final int F_DECK_SIZE = 8;
+    private static final int F_DISCARD_SIZE = 9;
+    private static final int F_DRAW_START = 10; // First drawLog entry of this move
+    private static final int F_RECIPIENT = 11; // Player who received those cards
+    private static final int F_PLAYED = 12; // Card taken from the mover's hand, or -1
+    private static final int F_MOVER = 13; // Player who played it
+    private static final int F_PERMUTATION = 14; // PERM_ constant
+    private static final int F_PERMUTATION_ARG = 15; // Swap target
+    private static final int F_RESHUFFLE_START = 16; // Discard pile and deck prefix saved in reshuffleLog, or -1
+    private static final int FRAME_SIZE = 17;
+
+    private static final int PERM_NONE = 0;
+    private static final int PERM_SWAP = 1;
+    private static final int PERM_ROTATE = 2;
+
+    private final RuleSet rules;
+    private final int playerCount;
+    private final int capacity; // Every card in the game
+    private final short[] counts; // [player * SLOTS + slot]; a byte would wrap from 32 decks up
+    private final long[] masks; // Faces present per player
+    private final int[] handSizes;
+    private final byte[] deck; // Bottom first, top at deckSize - 1
+    private int deckSize;
+    private final byte[] discard; // Bottom first, top at discardSize - 1
+    private int discardSize;
+    private int current;
+    private int direction; // 1 clockwise, -1 counter-clockwise
+    private int topCode; // Top card as it counts for play, so a wild carries its color
+    private int stack;
+    private int pending;
+    private int pendingArg;
+    private int lastPlayer;
+    private int winner;
+    private GameRandom random;
+
+    // Undo journal
+    private int[] frames = new int[FRAME_SIZE * 64];
+    private int depth;
+    private int frame; // Offset of the frame being written
+    private byte[] drawLog = new byte[256];
+    private int drawLogSize;
+    private byte[] reshuffleLog = new byte[256];
+    private int reshuffleLogSize;
+
+    private final byte[] scratch; // Card pool
+    private final short[] handScratch = new short[SLOTS];
+
+    private GameState(RuleSet rules, int playerCount, int capacity, GameRandom random) {
+        this.rules = rules;
+        this.playerCount = playerCount;
+        this.capacity = capacity;
+        this.random = random;
+        counts = new short[playerCount * SLOTS];
+        masks = new long[playerCount];
+        handSizes = new int[playerCount];
+        deck = new byte[capacity];
+        discard = new byte[capacity];
+        scratch = new byte[capacity];
+        winner = -1;
+    }
+
+    /**
+     * Copy a started game. The state reshuffles with its own random, so a search does
+     * not disturb the engine's stream.
+     */
+    public static GameState capture(GameEngine engine, GameRandom random) {
+        List<Player> players = engine.getPlayers();
+        List<Card> deckCards = new ArrayList<>(engine.getDeckSize());
+        engine.getDeck().copyTo(deckCards);
+        List<Card> discardCards = engine.getDiscardPile();
+
+        int cards = deckCards.size() + discardCards.size();
+        for (Player player : players) {
+            cards += player.getCardCount();
+        }
+
+        GameState state = new GameState(engine.getRules(), players.size(), cards, random);
+        for (int i = 0; i < players.size(); i++) {
+            for (Card card : players.get(i).getHand()) {
+                state.addToHand(i, card.getCode());
+            }
+            if (players.get(i).hasWon()) {
+                state.winner = i;
+            }
+        }
+        for (Card card : deckCards) {
+            state.deck[state.deckSize++] = (byte) card.getCode();
+        }
+        for (Card card : discardCards) {
+            state.discard[state.discardSize++] = (byte) card.getCode();
+        }
+        state.current = engine.getCurrentPlayerIndex();
+        state.direction = engine.isClockwise() ? 1 : -1;
+        state.topCode = engine.getTopCardCode();
+        state.stack = engine.getProgressiveDrawStack();
+        state.lastPlayer = engine.getLastPlayerIndex();
+        return state;
+    }
+
+    /**
+     * Independent copy of the current position, with an empty undo journal.
+     */
+    public GameState copy() {
+        GameState copy = new GameState(rules, playerCount, capacity, random.split());
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    /**
+     * Overwrite this state with another position of the same game, without allocating.
+     * The undo journal is cleared; the random stream is kept.
+     */
+    public void copyFrom(GameState other) {
+        if (other.playerCount != playerCount || other.capacity != capacity) {
+            throw new IllegalArgumentException("States are from different games");
+        }
+        System.arraycopy(other.counts, 0, counts, 0, counts.length);
+        System.arraycopy(other.masks, 0, masks, 0, playerCount);
+        System.arraycopy(other.handSizes, 0, handSizes, 0, playerCount);
+        System.arraycopy(other.deck, 0, deck, 0, other.deckSize);
+        System.arraycopy(other.discard, 0, discard, 0, other.discardSize);
+        deckSize = other.deckSize;
+        discardSize = other.discardSize;
+        current = other.current;
+        direction = other.direction;
+        topCode = other.topCode;
+        stack = other.stack;
+        pending = other.pending;
+        pendingArg = other.pendingArg;
+        lastPlayer = other.lastPlayer;
+        winner = other.winner;
+        depth = 0;
+        drawLogSize = 0;
+        reshuffleLogSize = 0;
+    }
+
+    public GameRandom getRandom() {
+        return random;
+    }
+
+    public void setRandom(GameRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * Re-deal every card the observer cannot see (other hands and the deck) at random,
+     * keeping each hand's size. Not journaled: call it on a fresh copy, before apply().
+     */
+    public void determinize(int observer, GameRandom sampler) {
+        int pool = 0;
+        System.arraycopy(deck, 0, scratch, 0, deckSize);
+        pool += deckSize;
+        for (int p = 0; p < playerCount; p++) {
+            if (p == observer) {
+                continue;
+            }
+            int base = p * SLOTS;
+            for (int slot = 0; slot < SLOTS; slot++) {
+                for (int c = counts[base + slot]; c > 0; c--) {
+                    scratch[pool++] = (byte) codeOfSlot(slot);
+                }
+            }
+            Arrays.fill(counts, base, base + SLOTS, (short) 0);
+            masks[p] = 0;
+        }
+
+        for (int i = pool - 1; i > 0; i--) {
+            int j = sampler.nextInt(i + 1);
+            byte temp = scratch[i];
+            scratch[i] = scratch[j];
+            scratch[j] = temp;
+        }
+
+        // Deal from the end of the pool; whatever is left becomes the deck
+        for (int p = 0; p < playerCount; p++) {
+            if (p == observer) {
+                continue;
+            }
+            int size = handSizes[p];
+            handSizes[p] = 0;
+            for (int c = 0; c < size; c++) {
+                addToHand(p, scratch[--pool]);
+            }
+        }
+        System.arraycopy(scratch, 0, deck, 0, pool);
+        deckSize = pool;
+    }
+
+    /**
+     * Play a move for the current player. Moves are not checked for legality beyond the
+     * mover holding the card they play; use a move generator to list legal ones.
+     */
+    public void apply(int move) {
+        int kind = Move.kind(move);
+        if (kind == Move.PLAY || kind == Move.JUMP_IN) {
+            int mover = kind == Move.JUMP_IN ? Move.player(move) : current;
+            int handCode = handCodeOf(Move.arg(move));
+            if (counts[mover * SLOTS + (handCode & 63)] == 0) {
+                throw new IllegalArgumentException("Player " + mover + " cannot " + Move.toString(move));
+            }
+        }
+
+        pushFrame();
+        int pendingBefore = pendingArg;
+        pending = PENDING_NONE;
+        switch (kind) {
+            case Move.PLAY:
+                play(Move.arg(move));
+                break;
+            case Move.DRAW:
+                draw();
+                break;
+            case Move.PASS:
+                advance(1);
+                break;
+            case Move.SWAP:
+                swapHands(current, Move.arg(move));
+                frames[frame + F_PERMUTATION] = PERM_SWAP;
+                frames[frame + F_PERMUTATION_ARG] = Move.arg(move);
+                advance(1);
+                break;
+            case Move.CHALLENGE:
+                challenge(pendingBefore);
+                break;
+            case Move.ACCEPT:
+                drawCards(current, 4);
+                break;
+            case Move.JUMP_IN:
+                // Like GameEngine.jumpInPlay: the jumper takes the turn and plays the card as usual
+                current = Move.player(move);
+                play(Move.arg(move));
+                break;
+            default:
+                depth--;
+                throw new IllegalArgumentException("Unknown move " + move);
+        }
+    }
+
+    /**
+     * Take back the last applied move.
+     */
+    public void undo() {
+        if (depth == 0) {
+            throw new IllegalStateException("Nothing to undo");
+        }
+        int f = --depth * FRAME_SIZE;
+
+        // Drawn cards leave the hand they went to
+        int drawStart = frames[f + F_DRAW_START];
+        int recipient = frames[f + F_RECIPIENT];
+        for (int i = drawLogSize - 1; i >= drawStart; i--) {
+            removeFromHand(recipient, drawLog[i]);
+        }
+
+        int reshuffleStart = frames[f + F_RESHUFFLE_START];
+        if (reshuffleStart >= 0) {
+            int saved = (reshuffleLogSize - reshuffleStart) / 2;
+            System.arraycopy(reshuffleLog, reshuffleStart, discard, 0, saved);
+            System.arraycopy(reshuffleLog, reshuffleStart + saved, deck, 0, saved);
+            reshuffleLogSize = reshuffleStart;
+        }
+        drawLogSize = drawStart;
+
+        switch (frames[f + F_PERMUTATION]) {
+            case PERM_SWAP:
+                swapHands(frames[f + F_CURRENT], frames[f + F_PERMUTATION_ARG]);
+                break;
+            case PERM_ROTATE:
+                rotateHands(-frames[f + F_DIRECTION]);
+                break;
+            default:
+                break;
+        }
+
+        int played = frames[f + F_PLAYED];
+        if (played >= 0) {
+            addToHand(frames[f + F_MOVER], played);
+        }
+
+        current = frames[f + F_CURRENT];
+        direction = frames[f + F_DIRECTION];
+        topCode = frames[f + F_TOP];
+        stack = frames[f + F_STACK];
+        pending = frames[f + F_PENDING];
+        pendingArg = frames[f + F_PENDING_ARG];
+        lastPlayer = frames[f + F_LAST];
+        winner = frames[f + F_WINNER];
+        deckSize = frames[f + F_DECK_SIZE];
+        discardSize = frames[f + F_DISCARD_SIZE];
+        frame = depth > 0 ? (depth - 1) * FRAME_SIZE : 0;
+    }
+
+    private void pushFrame() {
+        int f = depth * FRAME_SIZE;
+        if (f + FRAME_SIZE > frames.length) {
+            frames = Arrays.copyOf(frames, frames.length * 2);
+        }
+        frames[f + F_CURRENT] = current;
+        frames[f + F_DIRECTION] = direction;
+        frames[f + F_TOP] = topCode;
+        frames[f + F_STACK] = stack;
+        frames[f + F_PENDING] = pending;
+        frames[f + F_PENDING_ARG] = pendingArg;
+        frames[f + F_LAST] = lastPlayer;
+        frames[f + F_WINNER] = winner;
+        frames[f + F_DECK_SIZE] = deckSize;
+        frames[f + F_DISCARD_SIZE] = discardSize;
+        frames[f + F_DRAW_START] = drawLogSize;
+        frames[f + F_RECIPIENT] = -1;
+        frames[f + F_PLAYED] = -1;
+        frames[f + F_MOVER] = current;
+        frames[f + F_PERMUTATION] = PERM_NONE;
+        frames[f + F_PERMUTATION_ARG] = 0;
+        frames[f + F_RESHUFFLE_START] = -1;
+        frame = f;
+        depth++;
+    }
+
+    // Same effects GameEngine.playCard and HeadlessGame apply, with the turn advanced
+    // the same number of times
+    private void play(int code) {
+        int player = current;
+        int handCode = handCodeOf(code);
+        removeFromHand(player, handCode);
+        frames[frame + F_PLAYED] = handCode;
+        frames[frame + F_MOVER] = player;
+        discard[discardSize++] = (byte) handCode;
+        int colorBefore = Card.colorOf(topCode);
+        topCode = code;
+        lastPlayer = player;
+
+        if (handSizes[player] == 0) {
+            winner = player;
+            return;
+        }
+
+        switch (Card.symbolOf(code)) {
+            case Card.SYMBOL_SKIP:
+                advance(2);
+                break;
+            case Card.SYMBOL_REVERSE:
+                if (playerCount == 2) {
+                    advance(2);
+                } else {
+                    direction = -direction;
+                    advance(1);
+                }
+                break;
+            case Card.SYMBOL_DRAW_TWO:
+                if (rules.isProgressiveDrawEnabled()) {
+                    stack += 2;
+                } else {
+                    drawCards(playerAt(1), 2);
+                }
+                advance(2);
+                break;
+            case Card.SYMBOL_WILD_DRAW_FOUR:
+                if (rules.isProgressiveDrawEnabled()) {
+                    stack += 4;
+                    advance(2);
+                } else if (rules.isChallengeDrawFourEnabled()) {
+                    advance(2);
+                    pending = PENDING_CHALLENGE;
+                    pendingArg = colorBefore;
+                } else {
+                    drawCards(playerAt(1), 4);
+                    advance(2);
+                }
+                break;
+            case 7:
+                if (rules.isSevenZeroRuleEnabled()) {
+                    pending = PENDING_SWAP;
+                } else {
+                    advance(1);
+                }
+                break;
+            case 0:
+                if (rules.isSevenZeroRuleEnabled()) {
+                    rotateHands(direction);
+                    frames[frame + F_PERMUTATION] = PERM_ROTATE;
+                }
+                advance(1);
+                break;
+            default:
+                advance(1);
+                break;
+        }
+    }
+
+    // HeadlessGame's draw: one card, or up to a playable one under Draw to Match.
+    // A playable draw must be played next; otherwise the turn passes.
+    private void draw() {
+        int player = current;
+        boolean stacking = rules.isActionStackingEnabled();
+        int playable = -1;
+        if (rules.isDrawToMatchEnabled()) {
+            for (int drawn = 0; playable < 0 && drawn < MAX_DRAW_TO_MATCH; drawn++) {
+                int code = drawOne(player);
+                if (code < 0) {
+                    break; // No more cards in deck
+                }
+                if (Card.canPlayOn(code, topCode, stacking)) {
+                    playable = code;
+                }
+            }
+        } else {
+            int code = drawOne(player);
+            if (code >= 0 && Card.canPlayOn(code, topCode, stacking)) {
+                playable = code;
+            }
+        }
+
+        if (playable >= 0) {
+            pending = PENDING_DRAWN;
+            pendingArg = playable;
+        } else {
+            advance(1);
+        }
+    }
+
+    // Same outcome as GameEngine.executeChallengeResult
+    private void challenge(int colorBefore) {
+        int challenged = lastPlayer;
+        if (holdsColor(challenged, colorBefore)) {
+            drawCards(challenged, 4);
+        } else {
+            advance(1);
+            drawCards(current, 6);
+        }
+    }
+
+    private void drawCards(int player, int count) {
+        for (int i = 0; i < count; i++) {
+            if (drawOne(player) < 0) {
+                break;
+            }
+        }
+    }
+
+    private int drawOne(int player) {
+        if (deckSize == 0) {
+            reshuffle();
+            if (deckSize == 0) {
+                return -1;
+            }
+        }
+        int code = deck[--deckSize];
+        addToHand(player, code);
+        frames[frame + F_RECIPIENT] = player;
+        if (drawLogSize == drawLog.length) {
+            drawLog = Arrays.copyOf(drawLog, drawLog.length * 2);
+        }
+        drawLog[drawLogSize++] = (byte) code;
+        return code;
+    }
+
+    // Same as GameEngine: everything but the top card becomes the deck and is shuffled
+    private void reshuffle() {
+        if (discardSize <= 1) {
+            return;
+        }
+        if (frames[frame + F_RESHUFFLE_START] < 0) {
+            // Save the discard pile and the deck slots about to be overwritten, which
+            // still hold cards drawn by earlier moves
+            int saved = discardSize * 2;
+            if (reshuffleLogSize + saved > reshuffleLog.length) {
+                reshuffleLog = Arrays.copyOf(reshuffleLog, Math.max(reshuffleLog.length * 2, reshuffleLogSize + saved));
+            }
+            frames[frame + F_RESHUFFLE_START] = reshuffleLogSize;
+            System.arraycopy(discard, 0, reshuffleLog, reshuffleLogSize, discardSize);
+            System.arraycopy(deck, 0, reshuffleLog, reshuffleLogSize + discardSize, discardSize);
+            reshuffleLogSize += saved;
+        }
+
+        int count = discardSize - 1;
+        byte top = discard[count];
+        System.arraycopy(discard, 0, deck, 0, count);
+        deckSize = count;
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            byte temp = deck[i];
+            deck[i] = deck[j];
+            deck[j] = temp;
+        }
+        discard[0] = top;
+        discardSize = 1;
+    }
+
+    private void advance(int steps) {
+        current = playerAt(steps);
+    }
+
+    // Player the given number of turns after the current one
+    private int playerAt(int steps) {
+        return Math.floorMod(current + steps * direction, playerCount);
+    }
+
+    private void swapHands(int a, int b) {
+        if (a == b) {
+            return;
+        }
+        int baseA = a * SLOTS;
+        int baseB = b * SLOTS;
+        System.arraycopy(counts, baseA, handScratch, 0, SLOTS);
+        System.arraycopy(counts, baseB, counts, baseA, SLOTS);
+        System.arraycopy(handScratch, 0, counts, baseB, SLOTS);
+        long mask = masks[a];
+        masks[a] = masks[b];
+        masks[b] = mask;
+        int size = handSizes[a];
+        handSizes[a] = handSizes[b];
+        handSizes[b] = size;
+    }
+
+    // Same as GameEngine.rotateAllHands: clockwise, each player takes the next player's hand
+    private void rotateHands(int dir) {
+        int last = playerCount - 1;
+        if (dir > 0) {
+            System.arraycopy(counts, 0, handScratch, 0, SLOTS);
+            System.arraycopy(counts, SLOTS, counts, 0, last * SLOTS);
+            System.arraycopy(handScratch, 0, counts, last * SLOTS, SLOTS);
+            long mask = masks[0];
+            System.arraycopy(masks, 1, masks, 0, last);
+            masks[last] = mask;
+            int size = handSizes[0];
+            System.arraycopy(handSizes, 1, handSizes, 0, last);
+            handSizes[last] = size;
+        } else {
+            System.arraycopy(counts, last * SLOTS, handScratch, 0, SLOTS);
+            System.arraycopy(counts, 0, counts, SLOTS, last * SLOTS);
+            System.arraycopy(handScratch, 0, counts, 0, SLOTS);
+            long mask = masks[last];
+            System.arraycopy(masks, 0, masks, 1, last);
+            masks[0] = mask;
+            int size = handSizes[last];
+            System.arraycopy(handSizes, 0, handSizes, 1, last);
+            handSizes[0] = size;
+        }
+    }
+
+    private void addToHand(int player, int code) {
+        int slot = code & 63;
+        counts[player * SLOTS + slot]++;
+        masks[player] |= 1L << slot;
+        handSizes[player]++;
+    }
+
+    private void removeFromHand(int player, int code) {
+        int slot = code & 63;
+        if (--counts[player * SLOTS + slot] == 0) {
+            masks[player] &= ~(1L << slot);
+        }
+        handSizes[player]--;
+    }
+
+    private boolean holdsColor(int player, int color) {
+        if (color >= Card.Color.WILD.ordinal()) {
+            return false;
+        }
+        long colorBits = 0xFFFFL << (color << 4);
+        return (masks[player] & colorBits & ~Hand.symbolMask(Card.SYMBOL_WILD)
+                & ~Hand.symbolMask(Card.SYMBOL_WILD_DRAW_FOUR)) != 0;
+    }
+
+    // Cards in hand keep the WILD color; only the discard top shows the chosen one
+    private static int handCodeOf(int code) {
+        return Card.isWild(code) ? WILD_CODE | Card.symbolOf(code) : code;
+    }
+
+    private static int codeOfSlot(int slot) {
+        return Card.isWild(slot) ? WILD_CODE | Card.symbolOf(slot) : slot;
+    }
+
+    public RuleSet getRules() {
+        return rules;
+    }
+
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    public int getCurrentPlayer() {
+        return current;
+    }
+
+    public int getDirection() {
+        return direction;
+    }
+
+    public int getTopCode() {
+        return topCode;
+    }
+
+    public int getProgressiveDrawStack() {
+        return stack;
+    }
+
+    public int getPending() {
+        return pending;
+    }
+
+    public int getPendingArg() {
+        return pendingArg;
+    }
+
+    public int getLastPlayer() {
+        return lastPlayer;
+    }
+
+    public int getWinner() {
+        return winner;
+    }
+
+    public boolean isFinished() {
+        return winner >= 0;
+    }
+
+    public int getHandSize(int player) {
+        return handSizes[player];
+    }
+
+    /**
+     * Faces the player holds, as a Hand bit mask.
+     */
+    public long getHandMask(int player) {
+        return masks[player];
+    }
+
+    public int getCount(int player, int code) {
+        return counts[player * SLOTS + (code & 63)];
+    }
+
+    public long getPlayableMask(int player) {
+        return Hand.playableMask(masks[player], topCode, rules.isActionStackingEnabled());
+    }
+
+    /**
+     * Same check as GameEngine.isDrawAllowed, for the current player.
+     */
+    public boolean isDrawAllowed() {
+        if (rules.isForcePlayEnabled()) {
+            return getPlayableMask(current) == 0;
+        }
+        return rules.isDrawOnNoPlayEnabled();
+    }
+
+    public int getDeckSize() {
+        return deckSize;
+    }
+
+    public int getDiscardSize() {
+        return discardSize;
+    }
+
+    /**
+     * Number of moves that can be undone.
+     */
+    public int getDepth() {
+        return depth;
+    }
+}
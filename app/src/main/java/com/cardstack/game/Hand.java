@@ -0,0 +1,169 @@
+package com.cardstack.game;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * A player's cards, in the order they were received, plus multiset counts per card
+ * face and per color that are kept up to date on every change.
+ *
+ * Playability is answered with bit masks instead of scanning the hand. Each face maps
+ * to bit (code & 63): the four suit colors fill 16 bits each, and WILD-colored cards
+ * wrap onto the symbol bits 13/14 of the first block, which no card in a hand can
+ * otherwise occupy (colored wild faces only ever exist as the top card).
+ */
+public class Hand extends AbstractList<Card> implements RandomAccess {
+    private static final int SUIT_COLORS = 4;
+
+    // Bits for every suit color holding the given symbol, indexed by symbol
+    private static final long[] SYMBOL_MASKS = new long[16];
+
+    static {
+        for (int symbol = 0; symbol < 16; symbol++) {
+            long mask = 0;
+            for (int color = 0; color < SUIT_COLORS; color++) {
+                mask |= 1L << ((color << 4) | symbol);
+            }
+            SYMBOL_MASKS[symbol] = mask;
+        }
+    }
+
+    private Card[] cards = new Card[16];
+    private int size;
+
+    private final int[] codeCounts = new int[Card.CODE_LIMIT];
+    private final int[] colorCounts = new int[Card.Color.values().length];
+    private long presentMask;
+
+    @Override
+    public Card get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return cards[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void add(int index, Card card) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        if (size == cards.length) {
+            cards = Arrays.copyOf(cards, size * 2);
+        }
+        System.arraycopy(cards, index, cards, index + 1, size - index);
+        cards[index] = card;
+        size++;
+        modCount++;
+        count(card);
+    }
+
+    @Override
+    public Card remove(int index) {
+        Card card = get(index);
+        System.arraycopy(cards, index + 1, cards, index, size - index - 1);
+        cards[--size] = null;
+        modCount++;
+        uncount(card);
+        return card;
+    }
+
+    @Override
+    public Card set(int index, Card card) {
+        Card old = get(index);
+        cards[index] = card;
+        uncount(old);
+        count(card);
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(cards, 0, size, null);
+        size = 0;
+        modCount++;
+        Arrays.fill(codeCounts, 0);
+        Arrays.fill(colorCounts, 0);
+        presentMask = 0;
+    }
+
+    private void count(Card card) {
+        int code = card.getCode();
+        codeCounts[code]++;
+        colorCounts[card.getColor().ordinal()]++;
+        presentMask |= bit(code);
+    }
+
+    private void uncount(Card card) {
+        int code = card.getCode();
+        if (--codeCounts[code] == 0) {
+            presentMask &= ~bit(code);
+        }
+        colorCounts[card.getColor().ordinal()]--;
+    }
+
+    public static long bit(int code) {
+        return 1L << (code & 63);
+    }
+
+    /**
+     * True if the card's face is in a mask returned by {@link #playableMask}.
+     */
+    public static boolean isInMask(long mask, Card card) {
+        return (mask & bit(card.getCode())) != 0;
+    }
+
+    /**
+     * First card in hand order whose face is in the mask, or null.
+     * Only walks the hand as far as the first hit, and callers only ask after a
+     * mask check has shown there is one.
+     */
+    public Card firstInMask(long mask) {
+        for (int i = 0; i < size; i++) {
+            if ((mask & bit(cards[i].getCode())) != 0) {
+                return cards[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Bits of every face holding the given symbol (a number or a Card.SYMBOL_ constant).
+     */
+    public static long symbolMask(int symbol) {
+        return SYMBOL_MASKS[symbol];
+    }
+
+    /**
+     * Faces in this hand that can be played on the given top card, as a bit mask.
+     * Same rules as Card.canPlayOn, looked up for the whole hand at once.
+     */
+    public long playableMask(int topCode, boolean allowActionStacking) {
+        return playableMask(presentMask, topCode, allowActionStacking);
+    }
+
+    /**
+     * Playable subset of any set of faces given as a presence mask (bit code & 63).
+     */
+    public static long playableMask(long presentMask, int topCode, boolean allowActionStacking) {
+        return presentMask & Playability.playableMask(topCode, allowActionStacking);
+    }
+
+    public boolean hasPlayable(int topCode, boolean allowActionStacking) {
+        return playableMask(topCode, allowActionStacking) != 0;
+    }
+
+    public int getCount(Card card) {
+        return codeCounts[card.getCode()];
+    }
+
+    public int getColorCount(Card.Color color) {
+        return colorCounts[color.ordinal()];
+    }
+}
@@ -0,0 +1,106 @@
+package com.cardstack.game;
+
+import android.widget.LinearLayout;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the human player's hand row in sync with the latest snapshot without rebuilding it.
+ *
+ * Each bind trims the common prefix and suffix against the hand that is currently shown,
+ * so a played card removes one view, a drawn card adds one at the tail, and a swap or
+ * rotation rebinds the existing views in place. Removed views are kept in a small pool
+ * and reused when the hand grows again. Playability is applied in place to every view.
+ */
+public class HandPresenter {
+    private static final float PLAYABLE_ALPHA = 1.0f;
+    private static final float DISABLED_ALPHA = 0.5f;
+    private static final int CARD_MARGIN = 8;
+
+    public interface OnCardClickListener {
+        void onCardClick(Card card, CardView cardView);
+    }
+
+    private final LinearLayout container;
+    private final OnCardClickListener clickListener;
+    private final int cardWidth;
+    private final int cardHeight;
+
+    // Cards currently bound, in the same order as the container's children
+    private final List<Card> shown = new ArrayList<>();
+    private final ArrayDeque<CardView> spareViews = new ArrayDeque<>();
+
+    public HandPresenter(LinearLayout container, int cardWidth, int cardHeight, OnCardClickListener clickListener) {
+        this.container = container;
+        this.cardWidth = cardWidth;
+        this.cardHeight = cardHeight;
+        this.clickListener = clickListener;
+    }
+
+    public void bind(List<Card> hand, long playableMask, boolean enabled) {
+        int oldSize = shown.size();
+        int newSize = hand.size();
+
+        int prefix = 0;
+        int limit = Math.min(oldSize, newSize);
+        while (prefix < limit && shown.get(prefix) == hand.get(prefix)) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < limit - prefix
+                && shown.get(oldSize - 1 - suffix) == hand.get(newSize - 1 - suffix)) {
+            suffix++;
+        }
+
+        // Rebind the part of the changed range both hands share
+        int oldChanged = oldSize - prefix - suffix;
+        int newChanged = newSize - prefix - suffix;
+        int rebind = Math.min(oldChanged, newChanged);
+        for (int i = prefix; i < prefix + rebind; i++) {
+            Card card = hand.get(i);
+            ((CardView) container.getChildAt(i)).setCard(card);
+            shown.set(i, card);
+        }
+
+        // Then insert or remove whatever is left over, right after it
+        int at = prefix + rebind;
+        for (int i = rebind; i < newChanged; i++, at++) {
+            Card card = hand.get(at);
+            container.addView(obtainView(card), at);
+            shown.add(at, card);
+        }
+        for (int i = rebind; i < oldChanged; i++) {
+            CardView view = (CardView) container.getChildAt(at);
+            container.removeViewAt(at);
+            view.clearAnimation();
+            spareViews.push(view);
+            shown.remove(at);
+        }
+
+        for (int i = 0; i < newSize; i++) {
+            boolean playable = enabled && Hand.isInMask(playableMask, shown.get(i));
+            CardView view = (CardView) container.getChildAt(i);
+            view.setAlpha(playable ? PLAYABLE_ALPHA : DISABLED_ALPHA);
+            view.setClickable(playable);
+        }
+    }
+
+    private CardView obtainView(Card card) {
+        CardView view = spareViews.poll();
+        if (view == null) {
+            view = new CardView(container.getContext());
+            view.setSmall(true);
+
+            LinearLayout.LayoutParams params = new LinearLayout.LayoutParams(cardWidth, cardHeight);
+            params.setMargins(CARD_MARGIN, CARD_MARGIN, CARD_MARGIN, CARD_MARGIN);
+            view.setLayoutParams(params);
+
+            // One listener per view for its whole life; it reads whatever card is bound now
+            view.setOnClickListener(v -> clickListener.onCardClick(((CardView) v).getCard(), (CardView) v));
+        }
+        view.setCard(card);
+        return view;
+    }
+}
@@ -0,0 +1,68 @@
+package com.cardstack.game;
+
+/**
+ * Hand storage for one table, kept apart from the players. Each seat points to a slot
+ * and each slot holds a Hand, so a Seven-Zero swap exchanges two slot indices and a
+ * rotation permutes them; no hand or card moves. Players read their hand through the
+ * table they are seated at.
+ */
+public final class HandTable {
+    private Hand[] hands = new Hand[4];
+    private int[] slots = new int[4]; // Slot of each seat
+    private int size;
+
+    /**
+     * Seat a hand at the next seat and return the seat index.
+     */
+    public int add(Hand hand) {
+        if (size == hands.length) {
+            Hand[] grownHands = new Hand[size * 2];
+            int[] grownSlots = new int[size * 2];
+            System.arraycopy(hands, 0, grownHands, 0, size);
+            System.arraycopy(slots, 0, grownSlots, 0, size);
+            hands = grownHands;
+            slots = grownSlots;
+        }
+        hands[size] = hand;
+        slots[size] = size;
+        return size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Hand get(int seat) {
+        return hands[slots[seat]];
+    }
+
+    /**
+     * Slot currently assigned to the seat.
+     */
+    public int slotOf(int seat) {
+        return slots[seat];
+    }
+
+    public void swap(int seat, int otherSeat) {
+        int slot = slots[seat];
+        slots[seat] = slots[otherSeat];
+        slots[otherSeat] = slot;
+    }
+
+    /**
+     * Every seat takes the hand of the seat after it in the direction of play, following
+     * the cycle of seats once.
+     */
+    public void rotate(TurnOrder order) {
+        if (size < 2) {
+            return;
+        }
+        int first = slots[0];
+        int seat = 0;
+        for (int from = order.following(0); from != 0; from = order.following(from)) {
+            slots[seat] = slots[from];
+            seat = from;
+        }
+        slots[seat] = first;
+    }
+}
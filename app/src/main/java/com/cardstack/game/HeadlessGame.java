@@ -0,0 +1,271 @@
+package com.cardstack.game;
+
+import java.util.List;
+
+/**
+ * Plays AI turns against a GameEngine without any UI.
+ * Follows the same decisions MainActivity.processAITurns() makes (draw rules,
+ * Seven-Zero swaps, progressive stacks, never challenging a Wild Draw Four),
+ * so simulated games behave like games on the device.
+ * The app's game loop drives its AI players through this class as well, listening
+ * for each step so it can tell the player what happened.
+ */
+public class HeadlessGame {
+    /**
+     * Optional callbacks for each step of an AI turn, invoked on the thread playing the turn.
+     */
+    public interface TurnListener {
+        void onTurnSkipped(Player player);
+
+        void onCardsDrawn(Player player, int count);
+
+        void onCardPlayed(Player player, Card card);
+
+        void onHandsSwapped(Player player, int targetIndex);
+
+        void onHandsRotated();
+
+        void onDrawStacked(int stackTotal);
+
+        void onDrawFourAccepted(Player player);
+    }
+
+    /**
+     * Picks the card an AI plays when it holds at least one playable card. Without a
+     * strategy every AI uses Player.chooseCardToPlay and Player.chooseWildColor.
+     */
+    public interface Strategy {
+        /**
+         * Move for the current player, given the playable faces of their hand as a Hand
+         * bit mask. Returns the code of the card as it will lie on the discard pile (for
+         * a wild, the wild in the chosen color), or -1 to fall back to the built-in choice.
+         */
+        int chooseMove(GameEngine engine, long playableMask);
+    }
+
+    // Same safety limit the UI uses for Draw to Match
+    private static final int MAX_DRAW_TO_MATCH = 20;
+
+    private final GameEngine engine;
+    private final RuleSet rules;
+    private final GameRandom random;
+    private TurnListener listener;
+    private Strategy strategy;
+
+    private int turns;
+    private int winnerIndex = -1;
+
+    // Outcome counters for simulation reports
+    private int cardsDrawn;
+    private int turnsSkipped;
+    private int sevenSwaps;
+    private int zeroRotations;
+    private int progressiveStacks;
+    private int drawFoursAccepted;
+
+    public HeadlessGame(GameEngine engine) {
+        this.engine = engine;
+        this.rules = engine.getRules();
+        this.random = engine.getRandom();
+    }
+
+    public void setTurnListener(TurnListener listener) {
+        this.listener = listener;
+    }
+
+    public void setStrategy(Strategy strategy) {
+        this.strategy = strategy;
+    }
+
+    /**
+     * Play turns until someone wins or maxTurns is reached.
+     * Returns the winning player index, or -1 if the game did not finish.
+     */
+    public int play(int maxTurns) {
+        while (winnerIndex < 0 && turns < maxTurns) {
+            playTurn();
+        }
+        return winnerIndex;
+    }
+
+    /**
+     * Play a single turn for the current player. Returns true once the game is over.
+     */
+    public boolean playTurn() {
+        if (winnerIndex >= 0) {
+            return true;
+        }
+        turns++;
+
+        Player currentPlayer = engine.getCurrentPlayer();
+        Card cardToPlay = null;
+        Card.Color wildColor = null;
+        if (strategy != null && currentPlayer.isAI()) {
+            long playable = engine.getPlayableMask(currentPlayer);
+            if (playable != 0) {
+                int move = strategy.chooseMove(engine, playable);
+                if (move >= 0) {
+                    Card face = Card.fromCode(move);
+                    wildColor = face.getColor();
+                    cardToPlay = Card.isWild(move) ? face.withColor(Card.Color.WILD) : face;
+                }
+            }
+        }
+        if (cardToPlay == null) {
+            cardToPlay = currentPlayer.chooseCardToPlay(engine.getTopCard(), rules.isActionStackingEnabled());
+        }
+
+        if (cardToPlay == null) {
+            if (!engine.isDrawAllowed()) {
+                turnsSkipped++;
+                if (listener != null) {
+                    listener.onTurnSkipped(currentPlayer);
+                }
+                engine.nextPlayer();
+                return false;
+            }
+
+            if (rules.isDrawToMatchEnabled()) {
+                // Draw to Match: keep drawing until a playable card shows up
+                int drawn = 0;
+                while (cardToPlay == null && drawn < MAX_DRAW_TO_MATCH) {
+                    Card drawnCard = engine.drawCard();
+                    if (drawnCard == null) {
+                        break; // No more cards in deck
+                    }
+                    drawn++;
+                    currentPlayer.addCard(drawnCard);
+                    if (engine.canPlayCard(drawnCard)) {
+                        cardToPlay = drawnCard;
+                    }
+                }
+                cardsDrawn += drawn;
+                if (listener != null) {
+                    listener.onCardsDrawn(currentPlayer, drawn);
+                }
+            } else {
+                Card drawnCard = engine.drawCard();
+                if (drawnCard != null) {
+                    cardsDrawn++;
+                    currentPlayer.addCard(drawnCard);
+                    if (listener != null) {
+                        listener.onCardsDrawn(currentPlayer, 1);
+                    }
+                    if (engine.canPlayCard(drawnCard)) {
+                        cardToPlay = drawnCard;
+                    }
+                }
+            }
+        }
+
+        if (cardToPlay == null) {
+            turnsSkipped++;
+            if (listener != null) {
+                listener.onTurnSkipped(currentPlayer);
+            }
+            engine.nextPlayer();
+            return false;
+        }
+
+        if (wildColor == null) {
+            if (cardToPlay.getType() == Card.Type.WILD || cardToPlay.getType() == Card.Type.WILD_DRAW_FOUR) {
+                wildColor = currentPlayer.chooseWildColor();
+            } else {
+                wildColor = cardToPlay.getColor();
+            }
+        }
+
+        PlayResult result = engine.playCard(cardToPlay, wildColor);
+        if (listener != null) {
+            listener.onCardPlayed(currentPlayer, cardToPlay);
+        }
+
+        switch (result.getKind()) {
+            case WIN:
+                winnerIndex = result.getValue();
+                return true;
+            case SEVEN_SWAP: {
+                List<Player> players = engine.getPlayers();
+                int currentIndex = players.indexOf(currentPlayer);
+                int target;
+                do {
+                    target = random.nextInt(players.size());
+                } while (target == currentIndex);
+                engine.swapHandsWithPlayer(target);
+                sevenSwaps++;
+                if (listener != null) {
+                    listener.onHandsSwapped(currentPlayer, target);
+                }
+                engine.nextPlayer();
+                break;
+            }
+            case ZERO_ROTATE:
+                engine.rotateAllHands();
+                zeroRotations++;
+                if (listener != null) {
+                    listener.onHandsRotated();
+                }
+                engine.nextPlayer();
+                break;
+            case DRAW_STACKED:
+                progressiveStacks++;
+                if (listener != null) {
+                    listener.onDrawStacked(result.getValue());
+                }
+                engine.nextPlayer();
+                break;
+            case CHALLENGE_AVAILABLE:
+                // AI never challenges, same as on the device
+                engine.nextPlayer();
+                engine.drawCards(engine.getCurrentPlayer(), 4);
+                drawFoursAccepted++;
+                if (listener != null) {
+                    listener.onDrawFourAccepted(engine.getCurrentPlayer());
+                }
+                break;
+            default:
+                break;
+        }
+        return false;
+    }
+
+    public GameEngine getEngine() {
+        return engine;
+    }
+
+    public boolean isFinished() {
+        return winnerIndex >= 0;
+    }
+
+    public int getWinnerIndex() {
+        return winnerIndex;
+    }
+
+    public int getTurns() {
+        return turns;
+    }
+
+    public int getCardsDrawn() {
+        return cardsDrawn;
+    }
+
+    public int getTurnsSkipped() {
+        return turnsSkipped;
+    }
+
+    public int getSevenSwaps() {
+        return sevenSwaps;
+    }
+
+    public int getZeroRotations() {
+        return zeroRotations;
+    }
+
+    public int getProgressiveStacks() {
+        return progressiveStacks;
+    }
+
+    public int getDrawFoursAccepted() {
+        return drawFoursAccepted;
+    }
+}
@@ -4,7 +4,6 @@ import android.app.AlertDialog;
 import android.content.Intent;
 import android.graphics.Color;
 import android.os.Bundle;
-import android.os.Handler;
 import android.view.Gravity;
 import android.view.View;
 import android.view.animation.Animation;
@@ -16,14 +15,21 @@ import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 
-public class MainActivity extends AppCompatActivity {
-    private GameEngine gameEngine;
+public class MainActivity extends AppCompatActivity implements GameLoop.Listener {
+    private static final String REPLAY_FILE = "last_game.replay";
+    // One card-count view per opponent in the layout
+    private static final int AI_OPPONENTS = 3;
+
+    private GameLoop gameLoop;
+    private GameSnapshot snapshot; // Latest state published by the game loop
     private GameSettings settings;
     private PlayerStats stats;
     private LinearLayout playerHandLayout;
+    private HandPresenter handPresenter;
     private CardView topCardView;
     private TextView currentPlayerView;
     private TextView player1CardsView;
@@ -31,7 +37,6 @@ public class MainActivity extends AppCompatActivity {
     private TextView player3CardsView;
     private TextView deckCountView;
     private Button drawButton;
-    private Handler handler;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -49,8 +54,9 @@ public class MainActivity extends AppCompatActivity {
         player3CardsView = findViewById(R.id.player3CardsView);
         deckCountView = findViewById(R.id.deckCountView);
         drawButton = findViewById(R.id.drawButton);
+        handPresenter = createHandPresenter();
 
-        handler = new Handler();
+        gameLoop = new GameLoop(this, new File(getFilesDir(), REPLAY_FILE));
 
         Button newGameButton = findViewById(R.id.newGameButton);
         newGameButton.setOnClickListener(v -> startNewGame());
@@ -79,74 +85,7 @@ public class MainActivity extends AppCompatActivity {
             startActivity(intent);
         });
 
-        drawButton.setOnClickListener(v -> {
-            // Check if drawing is allowed based on Force Play and Draw on No Play settings
-            if (!gameEngine.isDrawAllowed()) {
-                if (settings.isForcePlayEnabled()) {
-                    Toast.makeText(this, "Force Play: You must play a card!", Toast.LENGTH_SHORT).show();
-                } else {
-                    Toast.makeText(this, "Draw on No Play is disabled - turn skipped", Toast.LENGTH_SHORT).show();
-                    gameEngine.nextPlayer();
-                    updateUI();
-                    processAITurns();
-                }
-                return;
-            }
-
-            if (settings.isDrawToMatchEnabled()) {
-                // Draw to Match: Keep drawing until player gets a playable card
-                int cardsDrawn = 0;
-                Card card = null;
-                boolean foundPlayable = false;
-                
-                while (!foundPlayable && cardsDrawn < 20) { // Safety limit
-                    card = gameEngine.drawCard();
-                    if (card != null) {
-                        stats.recordCardDrawn();
-                        cardsDrawn++;
-                        gameEngine.getCurrentPlayer().addCard(card);
-                        
-                        if (gameEngine.canPlayCard(card)) {
-                            foundPlayable = true;
-                        }
-                    } else {
-                        break; // No more cards in deck
-                    }
-                }
-                
-                if (foundPlayable) {
-                    Toast.makeText(this, "Drew " + cardsDrawn + " card(s) - you can play now!", Toast.LENGTH_SHORT).show();
-                } else {
-                    Toast.makeText(this, "Drew " + cardsDrawn + " card(s) - no playable cards, turn skipped", Toast.LENGTH_SHORT).show();
-                    // Advance to next player since no playable card was found
-                    gameEngine.nextPlayer();
-                    updateUI();
-                    processAITurns();
-                }
-                updateUI();
-            } else {
-                // Standard rule: Draw one card
-                Card card = gameEngine.drawCard();
-                if (card != null) {
-                    stats.recordCardDrawn();
-                    gameEngine.getCurrentPlayer().addCard(card);
-                    if (gameEngine.canPlayCard(card)) {
-                        Toast.makeText(this, "Card drawn - you can play it!", Toast.LENGTH_SHORT).show();
-                    } else {
-                        if (settings.isDrawOnNoPlayEnabled()) {
-                            Toast.makeText(this, "Card drawn - cannot play, turn skipped", Toast.LENGTH_SHORT).show();
-                            // Advance to next player since card is not playable
-                            gameEngine.nextPlayer();
-                            updateUI();
-                            processAITurns();
-                        } else {
-                            Toast.makeText(this, "Card drawn - cannot play", Toast.LENGTH_SHORT).show();
-                        }
-                    }
-                    updateUI();
-                }
-            }
-        });
+        drawButton.setOnClickListener(v -> gameLoop.drawCard());
 
         startNewGame();
         
@@ -155,10 +94,11 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void startNewGame() {
-        gameEngine = new GameEngine(settings);
-        
-        // Start tracking stats
-        stats.startGame();
+        // Seeded from a secure source and recorded, so the game can be replayed exactly
+        long seed = new SecureGameRandom().nextLong();
+        int decks = DeckFactory.decksFor(AI_OPPONENTS + 1, settings.getStartingCards());
+        GameEngine gameEngine = new GameEngine(settings, new SplitMixGameRandom(seed), decks);
+        gameEngine.setRecorder(new ReplayRecorder(seed));
         
         // Create human player profile with custom name/avatar
         String playerName = stats.getPlayerName();
@@ -167,41 +107,85 @@ public class MainActivity extends AppCompatActivity {
         gameEngine.addPlayer(new Player(playerName, false, humanProfile));
         
         // Create AI players with random profiles
-        List<PlayerProfile> aiProfiles = PlayerProfile.generateAIProfiles(3);
-        gameEngine.addPlayer(new Player(aiProfiles.get(0).getName(), true, aiProfiles.get(0)));
-        gameEngine.addPlayer(new Player(aiProfiles.get(1).getName(), true, aiProfiles.get(1)));
-        gameEngine.addPlayer(new Player(aiProfiles.get(2).getName(), true, aiProfiles.get(2)));
+        List<PlayerProfile> aiProfiles = PlayerProfile.generateAIProfiles(AI_OPPONENTS);
+        for (PlayerProfile profile : aiProfiles) {
+            gameEngine.addPlayer(new Player(profile.getName(), true, profile));
+        }
+
+        // Start tracking stats
+        stats.startGame(settings.getRuleMask(), aiProfiles);
 
-        gameEngine.startGame();
+        // The loop deals and owns the engine from here on
+        gameLoop.newGame(gameEngine, settings.isSmartAIEnabled());
+    }
+
+    @Override
+    public void onSnapshot(GameSnapshot snapshot) {
+        this.snapshot = snapshot;
         updateUI();
     }
 
-    private void updateUI() {
-        updateUI(false);
+    @Override
+    public void onMessage(String message, int toastLength) {
+        Toast.makeText(this, message, toastLength).show();
     }
-    
-    private void updateUI(boolean animateTopCard) {
-        Card topCard = gameEngine.getTopCard();
-        topCardView.setCard(topCard);
 
-        Player currentPlayer = gameEngine.getCurrentPlayer();
-        currentPlayerView.setText("Current Player: " + currentPlayer.getDisplayName());
+    @Override
+    public void onCardsDrawn(int count) {
+        stats.recordCardsDrawn(count);
+    }
+
+    @Override
+    public void onCardPlayed(Card card) {
+        stats.recordCardPlayed(card);
+    }
+
+    @Override
+    public void onSevenSwap() {
+        showSevenSwapDialog();
+    }
+
+    @Override
+    public void onChallengeDrawFour(int challengedPlayerIndex) {
+        showChallengeDrawFourDialog(challengedPlayerIndex);
+    }
+
+    @Override
+    public void onGameOver(int winnerIndex) {
+        // Check if human player won
+        if (winnerIndex == snapshot.getViewerIndex()) {
+            stats.recordWin();
+        } else {
+            stats.recordLoss(snapshot.getPlayerName(winnerIndex));
+        }
+        
+        showWinnerDialog(snapshot.getPlayerName(winnerIndex) + " wins! 🎉");
+    }
+
+    private void updateUI() {
+        if (snapshot == null) {
+            return; // First deal not published yet
+        }
+
+        topCardView.setCard(snapshot.getTopCard());
+
+        currentPlayerView.setText("Current Player: " + snapshot.getCurrentPlayerName());
 
         // Display AI players with avatars and names
-        player1CardsView.setText(gameEngine.getPlayers().get(1).getDisplayName() + ": " + 
-                                gameEngine.getPlayers().get(1).getCardCount() + " cards");
-        player2CardsView.setText(gameEngine.getPlayers().get(2).getDisplayName() + ": " + 
-                                gameEngine.getPlayers().get(2).getCardCount() + " cards");
-        player3CardsView.setText(gameEngine.getPlayers().get(3).getDisplayName() + ": " + 
-                                gameEngine.getPlayers().get(3).getCardCount() + " cards");
+        player1CardsView.setText(snapshot.getPlayerName(1) + ": " + 
+                                snapshot.getCardCount(1) + " cards");
+        player2CardsView.setText(snapshot.getPlayerName(2) + ": " + 
+                                snapshot.getCardCount(2) + " cards");
+        player3CardsView.setText(snapshot.getPlayerName(3) + ": " + 
+                                snapshot.getCardCount(3) + " cards");
 
-        deckCountView.setText("Deck: " + gameEngine.getDeckSize());
+        deckCountView.setText("Deck: " + snapshot.getDeckSize());
 
         updatePlayerHand();
 
-        // Enable/disable draw button based on Force Play setting
-        boolean isHumanTurn = !currentPlayer.isAI();
-        if (isHumanTurn && settings.isForcePlayEnabled() && gameEngine.hasPlayableCard()) {
+        // Enable/disable draw button based on the game's Force Play rule
+        boolean isHumanTurn = snapshot.isViewerTurn();
+        if (isHumanTurn && snapshot.getRules().isForcePlayEnabled() && snapshot.viewerHasPlayableCard()) {
             drawButton.setEnabled(false);
             drawButton.setText("Must Play Card");
         } else {
@@ -211,10 +195,10 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void updatePlayerHand() {
-        playerHandLayout.removeAllViews();
-        
-        Player humanPlayer = gameEngine.getPlayers().get(0);
-        
+        handPresenter.bind(snapshot.getViewerHand(), snapshot.getViewerPlayableMask(), snapshot.isViewerTurn());
+    }
+
+    private HandPresenter createHandPresenter() {
         // Calculate card size based on available screen width for consistent appearance
         int screenWidth = getResources().getDisplayMetrics().widthPixels;
         int availableWidth = screenWidth - (int)(getResources().getDisplayMetrics().density * 32); // Subtract padding
@@ -235,84 +219,23 @@ public class MainActivity extends AppCompatActivity {
         int cardDivider = isTablet ? 2 : 6;  // Changed to 2 for tablets - shows 2-3 WIDE cards!
         int cardWidth = Math.max(minCardWidth, Math.min(maxCardWidth, availableWidth / cardDivider));
         int cardHeight = (int)(cardWidth * 1.5); // Maintain 2:3 aspect ratio
-        
-        for (Card card : humanPlayer.getHand()) {
-            CardView cardView = new CardView(this);
-            cardView.setCard(card);
-            cardView.setSmall(true);
-            
-            LinearLayout.LayoutParams params = new LinearLayout.LayoutParams(
-                    cardWidth,
-                    cardHeight
-            );
-            params.setMargins(8, 8, 8, 8);
-            cardView.setLayoutParams(params);
-
-            cardView.setOnClickListener(v -> playHumanCard(card, cardView));
-            
-            if (!gameEngine.getCurrentPlayer().isAI() && gameEngine.canPlayCard(card)) {
-                cardView.setAlpha(1.0f);
-                cardView.setClickable(true);
-            } else {
-                cardView.setAlpha(0.5f);
-                cardView.setClickable(gameEngine.getCurrentPlayer().isAI() ? false : gameEngine.canPlayCard(card));
-            }
 
-            playerHandLayout.addView(cardView);
-        }
+        return new HandPresenter(playerHandLayout, cardWidth, cardHeight, this::playHumanCard);
     }
 
     private void playHumanCard(Card card, CardView cardView) {
-        if (!gameEngine.canPlayCard(card)) {
+        if (!snapshot.isViewerTurn() || !Hand.isInMask(snapshot.getViewerPlayableMask(), card)) {
             Toast.makeText(this, "Cannot play that card!", Toast.LENGTH_SHORT).show();
             // Shake animation for invalid move
             Animation shakeAnim = AnimationUtils.loadAnimation(this, R.anim.shake);
             cardView.startAnimation(shakeAnim);
             return;
         }
-        
-        // Track card played
-        stats.recordCardPlayed(card.getType());
 
         if (card.getType() == Card.Type.WILD || card.getType() == Card.Type.WILD_DRAW_FOUR) {
             showColorChoiceDialog(card);
         } else {
-            String result = gameEngine.playCard(card, card.getColor());
-            handleCardPlayResult(result);
-        }
-    }
-
-    private void handleCardPlayResult(String result) {
-        if (result != null && result.contains("wins")) {
-            handleGameEnd(result);
-        } else if (result != null && result.startsWith("SPECIAL:")) {
-            // Handle Seven-Zero Rule
-            if (result.equals("SPECIAL:SEVEN_SWAP")) {
-                showSevenSwapDialog();
-            } else if (result.equals("SPECIAL:ZERO_ROTATE")) {
-                gameEngine.rotateAllHands();
-                Toast.makeText(this, "All hands rotated!", Toast.LENGTH_LONG).show();
-                gameEngine.nextPlayer();
-                updateUI();
-                processAITurns();
-            }
-        } else if (result != null && result.startsWith("PROGRESSIVE:")) {
-            // Handle Progressive Draw Stacking
-            String[] parts = result.split(":");
-            String cardType = parts[1];
-            int stackCount = Integer.parseInt(parts[2]);
-            Toast.makeText(this, "Draw cards stacked! Total: " + stackCount + " cards", Toast.LENGTH_SHORT).show();
-            gameEngine.nextPlayer();
-            updateUI();
-            processAITurns();
-        } else if (result != null && result.startsWith("CHALLENGE_AVAILABLE:")) {
-            // Handle Challenge Draw Four
-            String[] parts = result.split(":");
-            int challengedPlayerIndex = Integer.parseInt(parts[1]);
-            showChallengeDrawFourDialog(challengedPlayerIndex);
-        } else {
-            updateUI();
-            processAITurns();
+            gameLoop.playCard(card, card.getColor());
         }
     }
 
@@ -323,158 +246,11 @@ public class MainActivity extends AppCompatActivity {
         AlertDialog.Builder builder = new AlertDialog.Builder(this);
         builder.setTitle("Choose a color");
         builder.setItems(colors, (dialog, which) -> {
-            String result = gameEngine.playCard(card, colorEnums[which]);
-            handleCardPlayResult(result);
+            gameLoop.playCard(card, colorEnums[which]);
         });
         builder.show();
     }
 
-    private void processAITurns() {
-        handler.postDelayed(new Runnable() {
-            @Override
-            public void run() {
-                Player currentPlayer = gameEngine.getCurrentPlayer();
-                
-                if (!currentPlayer.isAI()) {
-                    return;
-                }
-
-                Card cardToPlay = currentPlayer.chooseCardToPlay(gameEngine.getTopCard(), settings.isActionStackingEnabled());
-                
-                if (cardToPlay == null) {
-                    // Check if AI is allowed to draw (Force Play and Draw on No Play)
-                    if (!gameEngine.isDrawAllowed()) {
-                        Toast.makeText(MainActivity.this, 
-                                currentPlayer.getDisplayName() + " has no playable card - turn skipped", 
-                                Toast.LENGTH_SHORT).show();
-                        gameEngine.nextPlayer();
-                        updateUI();
-                        if (gameEngine.getCurrentPlayer().isAI()) {
-                            handler.postDelayed(this, 1000);
-                        }
-                        return;
-                    }
-
-                    if (settings.isDrawToMatchEnabled()) {
-                        // Draw to Match: Keep drawing until AI gets a playable card
-                        int cardsDrawn = 0;
-                        boolean foundPlayable = false;
-                        
-                        while (!foundPlayable && cardsDrawn < 20) { // Safety limit
-                            Card drawnCard = gameEngine.drawCard();
-                            if (drawnCard != null) {
-                                cardsDrawn++;
-                                currentPlayer.addCard(drawnCard);
-                                
-                                if (gameEngine.canPlayCard(drawnCard)) {
-                                    cardToPlay = drawnCard;
-                                    foundPlayable = true;
-                                }
-                            } else {
-                                break; // No more cards in deck
-                            }
-                        }
-                        
-                        Toast.makeText(MainActivity.this, 
-                                currentPlayer.getDisplayName() + " drew " + cardsDrawn + " card(s)", 
-                                Toast.LENGTH_SHORT).show();
-                    } else {
-                        // Standard rule: Draw one card
-                        Card drawnCard = gameEngine.drawCard();
-                        if (drawnCard != null) {
-                            currentPlayer.addCard(drawnCard);
-                            Toast.makeText(MainActivity.this, 
-                                    currentPlayer.getDisplayName() + " drew a card", 
-                                    Toast.LENGTH_SHORT).show();
-                            
-                            if (gameEngine.canPlayCard(drawnCard)) {
-                                cardToPlay = drawnCard;
-                            }
-                        }
-                    }
-                }
-
-                if (cardToPlay != null) {
-                    Card.Color wildColor = Card.Color.RED;
-                    if (cardToPlay.getType() == Card.Type.WILD || 
-                        cardToPlay.getType() == Card.Type.WILD_DRAW_FOUR) {
-                        wildColor = currentPlayer.chooseWildColor();
-                    } else {
-                        wildColor = cardToPlay.getColor();
-                    }
-
-                    String result = gameEngine.playCard(cardToPlay, wildColor);
-                    Toast.makeText(MainActivity.this, 
-                            currentPlayer.getDisplayName() + " played " + cardToPlay.getDisplayText(), 
-                            Toast.LENGTH_SHORT).show();
-                    
-                    // Handle special results for AI
-                    if (result != null && result.contains("wins")) {
-                        updateUI();
-                        showWinnerDialog(result);
-                        return;
-                    } else if (result != null && result.startsWith("SPECIAL:SEVEN_SWAP")) {
-                        // AI chooses random other player to swap with
-                        int currentIndex = gameEngine.getPlayers().indexOf(currentPlayer);
-                        int randomTarget;
-                        do {
-                            randomTarget = (int)(Math.random() * gameEngine.getPlayers().size());
-                        } while (randomTarget == currentIndex);
-                        gameEngine.swapHandsWithPlayer(randomTarget);
-                        Toast.makeText(MainActivity.this, 
-                                "Seven Rule: " + currentPlayer.getDisplayName() + " swapped hands!", 
-                                Toast.LENGTH_LONG).show();
-                        gameEngine.nextPlayer();
-                    } else if (result != null && result.startsWith("SPECIAL:ZERO_ROTATE")) {
-                        gameEngine.rotateAllHands();
-                        Toast.makeText(MainActivity.this, "Zero Rule: All hands rotated!", Toast.LENGTH_LONG).show();
-                        gameEngine.nextPlayer();
-                    } else if (result != null && result.startsWith("PROGRESSIVE:")) {
-                        String[] parts = result.split(":");
-                        int stackCount = Integer.parseInt(parts[2]);
-                        Toast.makeText(MainActivity.this, 
-                                "Draw cards stacked! Total: " + stackCount + " cards", 
-                                Toast.LENGTH_SHORT).show();
-                        gameEngine.nextPlayer();
-                    } else if (result != null && result.startsWith("CHALLENGE_AVAILABLE:")) {
-                        // AI automatically doesn't challenge (simple AI behavior)
-                        gameEngine.nextPlayer();
-                        Player nextPlayer = gameEngine.getCurrentPlayer();
-                        gameEngine.drawCards(nextPlayer, 4);
-                        Toast.makeText(MainActivity.this, 
-                                nextPlayer.getDisplayName() + " drew 4 cards", 
-                                Toast.LENGTH_SHORT).show();
-                    }
-                } else {
-                    // AI has no card to play, skip turn
-                    Toast.makeText(MainActivity.this, 
-                            currentPlayer.getDisplayName() + " has no playable card - turn skipped", 
-                            Toast.LENGTH_SHORT).show();
-                    gameEngine.nextPlayer();
-                }
-
-                updateUI();
-
-                if (gameEngine.getCurrentPlayer().isAI()) {
-                    handler.postDelayed(this, 1000);
-                }
-            }
-        }, 1000);
-    }
-
-    private void handleGameEnd(String result) {
-        // Check if human player won
-        Player humanPlayer = gameEngine.getPlayers().get(0);
-        if (humanPlayer.hasWon()) {
-            stats.recordWin();
-        } else {
-            String winnerName = result.split(" wins")[0];
-            stats.recordLoss(winnerName);
-        }
-        
-        showWinnerDialog(result);
-    }
-
     private void showWinnerDialog(String message) {
         AlertDialog.Builder builder = new AlertDialog.Builder(this);
         builder.setTitle("Game Over!");
@@ -495,10 +271,9 @@ public class MainActivity extends AppCompatActivity {
         List<Integer> playerIndices = new ArrayList<>();
         
         int currentIndex = 0; // Human player is always index 0
-        for (int i = 0; i < gameEngine.getPlayers().size(); i++) {
+        for (int i = 0; i < snapshot.getPlayerCount(); i++) {
             if (i != currentIndex) { // Exclude current player
-                Player p = gameEngine.getPlayers().get(i);
-                playerNames.add(p.getDisplayName() + " (" + p.getCardCount() + " cards)");
+                playerNames.add(snapshot.getPlayerName(i) + " (" + snapshot.getCardCount(i) + " cards)");
                 playerIndices.add(i);
             }
         }
@@ -506,12 +281,7 @@ public class MainActivity extends AppCompatActivity {
         AlertDialog.Builder builder = new AlertDialog.Builder(this);
         builder.setTitle("Seven Rule: Choose player to swap hands with");
         builder.setItems(playerNames.toArray(new String[0]), (dialog, which) -> {
-            int targetIndex = playerIndices.get(which);
-            gameEngine.swapHandsWithPlayer(targetIndex);
-            Toast.makeText(this, "Hands swapped with " + gameEngine.getPlayers().get(targetIndex).getDisplayName(), Toast.LENGTH_LONG).show();
-            gameEngine.nextPlayer();
-            updateUI();
-            processAITurns();
+            gameLoop.swapHands(playerIndices.get(which));
         });
         builder.setCancelable(false);
         builder.show();
@@ -519,30 +289,13 @@ public class MainActivity extends AppCompatActivity {
 
     // Challenge Draw Four Dialog
     private void showChallengeDrawFourDialog(int challengedPlayerIndex) {
-        Player challengedPlayer = gameEngine.getPlayers().get(challengedPlayerIndex);
+        String challengedName = snapshot.getPlayerName(challengedPlayerIndex);
         
         AlertDialog.Builder builder = new AlertDialog.Builder(this);
         builder.setTitle("Wild Draw Four Played!");
-        builder.setMessage(challengedPlayer.getDisplayName() + " played a Wild Draw Four.\n\nDo you want to challenge?");
-        builder.setPositiveButton("Challenge", (dialog, which) -> {
-            boolean challengeSucceeds = gameEngine.canChallengeDrawFour(challengedPlayerIndex);
-            if (challengeSucceeds) {
-                Toast.makeText(this, "Challenge successful! " + challengedPlayer.getDisplayName() + " had a matching color and draws 4!", Toast.LENGTH_LONG).show();
-            } else {
-                Toast.makeText(this, "Challenge failed! You draw 6 cards instead!", Toast.LENGTH_LONG).show();
-            }
-            gameEngine.executeChallengeResult(challengeSucceeds, challengedPlayerIndex);
-            updateUI();
-            processAITurns();
-        });
-        builder.setNegativeButton("Don't Challenge", (dialog, which) -> {
-            gameEngine.nextPlayer();
-            Player nextPlayer = gameEngine.getCurrentPlayer();
-            gameEngine.drawCards(nextPlayer, 4);
-            Toast.makeText(this, "Drew 4 cards", Toast.LENGTH_SHORT).show();
-            updateUI();
-            processAITurns();
-        });
+        builder.setMessage(challengedName + " played a Wild Draw Four.\n\nDo you want to challenge?");
+        builder.setPositiveButton("Challenge", (dialog, which) -> gameLoop.challengeDrawFour(challengedPlayerIndex));
+        builder.setNegativeButton("Don't Challenge", (dialog, which) -> gameLoop.acceptDrawFour());
         builder.setCancelable(false);
         builder.show();
     }
@@ -555,4 +308,24 @@ public class MainActivity extends AppCompatActivity {
             updateUI();
         }
     }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        // Write this game's batched counters before the process can be killed
+        stats.flush();
+    }
+
+    @Override
+    public void onLowMemory() {
+        super.onLowMemory();
+        // Faces are cheap to render again
+        CardFaceCache.getInstance().evictAll();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        gameLoop.shutdown();
+    }
 }
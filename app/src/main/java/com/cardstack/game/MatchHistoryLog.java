@@ -0,0 +1,115 @@
+package com.cardstack.game;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Match history as an append-only file of fixed-size binary records.
+ *
+ * Appending writes one record at the end of the file and reading the last k matches
+ * reads exactly k records, so neither cost grows with the length of the history and
+ * there is no need to cap it. A record torn by a crash mid-write is shorter than
+ * RECORD_SIZE; readers ignore it and the next append overwrites it.
+ *
+ * Layout: 8-byte header (magic, version), then records of
+ * timestamp (long), duration (long), cards played (int), flags (int, bit 0 = won).
+ */
+public class MatchHistoryLog {
+    private static final int MAGIC = 0x43534D48; // "CSMH"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    static final int RECORD_SIZE = 24;
+    private static final int FLAG_WON = 1;
+
+    private final File file;
+
+    public MatchHistoryLog(File file) {
+        this.file = file;
+    }
+
+    public void append(PlayerStats.MatchResult match) throws IOException {
+        List<PlayerStats.MatchResult> single = new ArrayList<>(1);
+        single.add(match);
+        appendAll(single);
+    }
+
+    /**
+     * Append matches, oldest first, with a single write.
+     */
+    public void appendAll(List<PlayerStats.MatchResult> matches) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(matches.size() * RECORD_SIZE);
+        for (PlayerStats.MatchResult match : matches) {
+            buffer.putLong(match.timestamp);
+            buffer.putLong(match.duration);
+            buffer.putInt(match.cardsPlayed);
+            buffer.putInt(match.won ? FLAG_WON : 0);
+        }
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            if (raf.length() < HEADER_SIZE) {
+                raf.setLength(0);
+                raf.writeInt(MAGIC);
+                raf.writeInt(VERSION);
+            }
+            // Start after the last complete record, dropping any torn tail
+            raf.seek(HEADER_SIZE + recordCount(raf) * RECORD_SIZE);
+            raf.write(buffer.array());
+        }
+    }
+
+    public int size() throws IOException {
+        if (!file.exists()) {
+            return 0;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            return (int) recordCount(raf);
+        }
+    }
+
+    /**
+     * Up to count of the most recent matches, newest first.
+     */
+    public List<PlayerStats.MatchResult> readRecent(int count) throws IOException {
+        List<PlayerStats.MatchResult> matches = new ArrayList<>();
+        if (!file.exists() || count <= 0) {
+            return matches;
+        }
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            if (raf.length() < HEADER_SIZE || raf.readInt() != MAGIC) {
+                return matches;
+            }
+
+            long total = recordCount(raf);
+            int n = (int) Math.min(count, total);
+            byte[] bytes = new byte[n * RECORD_SIZE];
+            raf.seek(HEADER_SIZE + (total - n) * RECORD_SIZE);
+            raf.readFully(bytes);
+
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            for (int i = n - 1; i >= 0; i--) {
+                int offset = i * RECORD_SIZE;
+                long timestamp = buffer.getLong(offset);
+                long duration = buffer.getLong(offset + 8);
+                int cardsPlayed = buffer.getInt(offset + 16);
+                int flags = buffer.getInt(offset + 20);
+                matches.add(new PlayerStats.MatchResult((flags & FLAG_WON) != 0, duration, cardsPlayed, timestamp));
+            }
+        }
+        return matches;
+    }
+
+    public void clear() throws IOException {
+        if (file.exists() && !file.delete()) {
+            throw new IOException("Could not delete " + file);
+        }
+    }
+
+    private static long recordCount(RandomAccessFile raf) throws IOException {
+        return Math.max(0, raf.length() - HEADER_SIZE) / RECORD_SIZE;
+    }
+}
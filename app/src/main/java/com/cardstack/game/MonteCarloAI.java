@@ -0,0 +1,333 @@
+package com.cardstack.game;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Information-Set Monte Carlo Tree Search (single observer) as a HeadlessGame strategy.
+ *
+ * Every iteration copies the captured position into a scratch GameState, re-deals the
+ * hidden cards (GameState.determinize), walks a tree of moves shared by all samples,
+ * adds one new move, then finishes the game with the greedy Player policy and credits
+ * the winner. Moves are only offered when they are legal in the current sample, so UCB
+ * weighs each one by how often it was available. Turns with a single legal move
+ * (forced draws, skips) are played through without a tree node.
+ *
+ * Search is root-parallel: each worker grows its own tree from its own random stream
+ * until the time budget or iteration budget runs out, and the root visit counts are
+ * summed to pick the move. Apart from new tree nodes, an iteration allocates nothing.
+ */
+public class MonteCarloAI implements HeadlessGame.Strategy {
+    private static final double EXPLORATION = 0.7;
+    // Playouts that run this long are scored by who holds the fewest cards
+    private static final int MAX_PLAYOUT_TURNS = 300;
+
+    private static final int[] SUIT_COLORS = {
+        Card.Color.RED.ordinal(), Card.Color.BLUE.ordinal(),
+        Card.Color.GREEN.ordinal(), Card.Color.YELLOW.ordinal()
+    };
+
+    private final long timeBudgetNanos;
+    private final int maxIterations;
+    private final int threads;
+    private final ExecutorService workers;
+    private final GameRandom random;
+
+    /**
+     * @param timeBudgetMs  wall-clock limit per move
+     * @param maxIterations limit per worker per move, or 0 for no limit
+     * @param threads       number of root-parallel workers
+     */
+    public MonteCarloAI(long timeBudgetMs, int maxIterations, int threads, GameRandom random) {
+        this.timeBudgetNanos = timeBudgetMs * 1_000_000L;
+        this.maxIterations = maxIterations > 0 ? maxIterations : Integer.MAX_VALUE;
+        this.threads = Math.max(1, threads);
+        this.random = random;
+        workers = this.threads > 1 ? Executors.newFixedThreadPool(this.threads - 1, runnable -> {
+            Thread thread = new Thread(runnable, "mcts-worker");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    /**
+     * Search on every core for up to timeBudgetMs per move.
+     */
+    public MonteCarloAI(long timeBudgetMs, GameRandom random) {
+        this(timeBudgetMs, 0, Runtime.getRuntime().availableProcessors(), random);
+    }
+
+    @Override
+    public int chooseMove(GameEngine engine, long playableMask) {
+        int only = Long.numberOfTrailingZeros(playableMask);
+        if (Long.bitCount(playableMask) == 1 && !Card.isWild(only)) {
+            return only;
+        }
+
+        long deadline = System.nanoTime() + timeBudgetNanos;
+        GameState root = GameState.capture(engine, random.split());
+
+        // Helpers search on the pool; the calling thread runs one tree itself.
+        // Scratch states are copied here, since split() is not thread safe.
+        List<Future<Node>> helpers = new ArrayList<>();
+        for (int i = 1; i < threads; i++) {
+            GameState scratch = root.copy();
+            helpers.add(workers.submit(() -> search(root, scratch, deadline)));
+        }
+        Map<Integer, Integer> visits = new HashMap<>();
+        addRootVisits(search(root, root.copy(), deadline), visits);
+        for (Future<Node> helper : helpers) {
+            try {
+                addRootVisits(helper.get(), visits);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Search worker failed", e.getCause());
+            }
+        }
+
+        int best = -1;
+        int bestVisits = -1;
+        for (Map.Entry<Integer, Integer> entry : visits.entrySet()) {
+            if (entry.getValue() > bestVisits) {
+                best = Move.arg(entry.getKey());
+                bestVisits = entry.getValue();
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Stop the worker threads. The AI must not be used afterwards.
+     */
+    public void shutdown() {
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+    }
+
+    // One tree grown from root; sample is this worker's scratch state and random stream
+    private Node search(GameState root, GameState sample, long deadline) {
+        Node tree = new Node(-1, -1, null);
+        TreeWalk walk = new TreeWalk(sample, MoveGenerator.bufferSize(root.getPlayerCount()));
+        int observer = root.getCurrentPlayer();
+        for (int i = 0; i < maxIterations && System.nanoTime() < deadline; i++) {
+            sample.copyFrom(root);
+            sample.determinize(observer, sample.getRandom());
+            walk.backPropagate(walk.run(tree));
+        }
+        return tree;
+    }
+
+    private static void addRootVisits(Node tree, Map<Integer, Integer> visits) {
+        for (Node child : tree.children) {
+            Integer count = visits.get(child.move);
+            visits.put(child.move, (count == null ? 0 : count) + child.visits);
+        }
+    }
+
+    /**
+     * Same choice Player.chooseCardToPlay and chooseWildColor make, on a GameState:
+     * Wild Draw Four, Draw Two, Skip/Reverse, Wild, then anything else, with a wild set
+     * to the color held most. Seven-Zero targets are random and a Wild Draw Four is
+     * never challenged, as in HeadlessGame. moves must hold the current turn moves.
+     */
+    static int greedyMove(GameState state, int[] moves, int count, GameRandom random) {
+        int player = state.getCurrentPlayer();
+        switch (state.getPending()) {
+            case GameState.PENDING_SWAP:
+                return moves[random.nextInt(count)];
+            case GameState.PENDING_CHALLENGE:
+                return Move.accept();
+            case GameState.PENDING_DRAWN:
+                return playWithColor(state, player, state.getPendingArg());
+            default:
+                break;
+        }
+
+        long playable = state.getPlayableMask(player);
+        if (playable == 0) {
+            return moves[0]; // Draw or pass, whichever is legal
+        }
+        long pick = playable & Hand.symbolMask(Card.SYMBOL_WILD_DRAW_FOUR);
+        if (pick == 0) {
+            pick = playable & Hand.symbolMask(Card.SYMBOL_DRAW_TWO);
+        }
+        if (pick == 0) {
+            pick = playable & (Hand.symbolMask(Card.SYMBOL_SKIP) | Hand.symbolMask(Card.SYMBOL_REVERSE));
+        }
+        if (pick == 0) {
+            pick = playable & Hand.symbolMask(Card.SYMBOL_WILD);
+        }
+        if (pick == 0) {
+            pick = playable;
+        }
+        return playWithColor(state, player, Long.numberOfTrailingZeros(pick));
+    }
+
+    // PLAY for a face in hand (code or hand bit); a wild takes the color held most
+    private static int playWithColor(GameState state, int player, int code) {
+        if (!Card.isWild(code)) {
+            return Move.play(code);
+        }
+        int best = SUIT_COLORS[0];
+        int bestCount = colorCount(state, player, best);
+        for (int i = 1; i < SUIT_COLORS.length; i++) {
+            int count = colorCount(state, player, SUIT_COLORS[i]);
+            if (count > bestCount) {
+                best = SUIT_COLORS[i];
+                bestCount = count;
+            }
+        }
+        return Move.play((best << 4) | Card.symbolOf(code));
+    }
+
+    private static int colorCount(GameState state, int player, int color) {
+        int count = 0;
+        for (int symbol = 0; symbol < Card.SYMBOL_WILD; symbol++) {
+            count += state.getCount(player, (color << 4) | symbol);
+        }
+        return count;
+    }
+
+    private static final class Node {
+        final int move;
+        final int player; // Who made the move leading here
+        final Node parent;
+        final List<Node> children = new ArrayList<>();
+        int visits;
+        int availability;
+        double wins;
+
+        Node(int move, int player, Node parent) {
+            this.move = move;
+            this.player = player;
+            this.parent = parent;
+        }
+
+        Node child(int move, int player) {
+            for (Node child : children) {
+                if (child.move == move && child.player == player) {
+                    return child;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * One worker's iteration driver: selects down the tree, expands one node, then
+     * plays the rest of the sampled game greedily.
+     */
+    private static final class TreeWalk {
+        private final GameState state;
+        private final GameRandom random;
+        private final int[] moves;
+        private Node node;
+
+        TreeWalk(GameState state, int bufferSize) {
+            this.state = state;
+            this.random = state.getRandom();
+            moves = new int[bufferSize];
+        }
+
+        // Play the sampled game to the end and return the winner
+        int run(Node root) {
+            node = root;
+            boolean expanded = false;
+            for (int turn = 0; turn < MAX_PLAYOUT_TURNS && !state.isFinished(); turn++) {
+                int count = MoveGenerator.generateTurnMoves(state, moves, 0);
+                if (turn == 0) {
+                    // The strategy can only answer with a card to play
+                    count = keepPlays(count);
+                }
+                int move;
+                if (count == 1) {
+                    move = moves[0];
+                } else if (expanded) {
+                    move = greedyMove(state, moves, count, random);
+                } else {
+                    expanded = select(count);
+                    move = node.move;
+                }
+                state.apply(move);
+            }
+            return state.isFinished() ? state.getWinner() : fewestCards();
+        }
+
+        // Step to the best child by UCB, or add an untried move; true once expanded
+        private boolean select(int count) {
+            int player = state.getCurrentPlayer();
+            int untried = 0;
+            Node best = null;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < count; i++) {
+                Node child = node.child(moves[i], player);
+                if (child == null) {
+                    untried++;
+                    continue;
+                }
+                child.availability++;
+                double score = child.wins / child.visits
+                        + EXPLORATION * Math.sqrt(Math.log(child.availability) / child.visits);
+                if (score > bestScore) {
+                    best = child;
+                    bestScore = score;
+                }
+            }
+
+            if (untried == 0) {
+                node = best;
+                return false;
+            }
+            // Expand a random move this node has not tried yet
+            int pick = random.nextInt(untried);
+            for (int i = 0; i < count; i++) {
+                if (node.child(moves[i], player) == null && pick-- == 0) {
+                    Node child = new Node(moves[i], player, node);
+                    child.availability = 1;
+                    node.children.add(child);
+                    node = child;
+                    break;
+                }
+            }
+            return true;
+        }
+
+        private int keepPlays(int count) {
+            int kept = 0;
+            for (int i = 0; i < count; i++) {
+                if (Move.kind(moves[i]) == Move.PLAY) {
+                    moves[kept++] = moves[i];
+                }
+            }
+            return kept;
+        }
+
+        private int fewestCards() {
+            int best = 0;
+            for (int i = 1; i < state.getPlayerCount(); i++) {
+                if (state.getHandSize(i) < state.getHandSize(best)) {
+                    best = i;
+                }
+            }
+            return best;
+        }
+
+        void backPropagate(int winner) {
+            for (Node n = node; n != null; n = n.parent) {
+                n.visits++;
+                if (n.player == winner) {
+                    n.wins++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.cardstack.game;
+
+/**
+ * A move packed into an int, so search code can keep moves in primitive buffers.
+ *
+ * Layout: kind in bits 16 and up, player in bits 8-15 (only used where the mover is not
+ * the current player), argument in bits 0-7. The argument of PLAY is the code of the
+ * card as it will lie on the discard pile, so a wild carries its chosen color; the
+ * argument of SWAP is the target player.
+ */
+public final class Move {
+    public static final int PLAY = 0;
+    public static final int DRAW = 1;
+    public static final int PASS = 2;
+    public static final int SWAP = 3;
+    public static final int CHALLENGE = 4;
+    public static final int ACCEPT = 5;
+    public static final int JUMP_IN = 6;
+
+    private static final String[] KIND_NAMES = {"play", "draw", "pass", "swap", "challenge", "accept", "jump-in"};
+
+    private Move() {
+    }
+
+    public static int play(int code) {
+        return (PLAY << 16) | code;
+    }
+
+    public static int draw() {
+        return DRAW << 16;
+    }
+
+    public static int pass() {
+        return PASS << 16;
+    }
+
+    public static int swap(int targetIndex) {
+        return (SWAP << 16) | targetIndex;
+    }
+
+    public static int challenge() {
+        return CHALLENGE << 16;
+    }
+
+    public static int accept() {
+        return ACCEPT << 16;
+    }
+
+    /**
+     * Another player plays an exact match of the top card out of turn.
+     */
+    public static int jumpIn(int playerIndex, int code) {
+        return (JUMP_IN << 16) | (playerIndex << 8) | code;
+    }
+
+    public static int kind(int move) {
+        return move >>> 16;
+    }
+
+    public static int player(int move) {
+        return (move >> 8) & 0xFF;
+    }
+
+    public static int arg(int move) {
+        return move & 0xFF;
+    }
+
+    public static String toString(int move) {
+        int kind = kind(move);
+        switch (kind) {
+            case PLAY:
+                return "play " + Card.fromCode(arg(move)).getDisplayText()
+                        + (Card.isWild(arg(move)) ? " " + Card.fromCode(arg(move)).getColor() : "");
+            case SWAP:
+                return "swap " + arg(move);
+            case JUMP_IN:
+                return "jump-in " + player(move) + " " + Card.fromCode(arg(move)).getDisplayText();
+            default:
+                return KIND_NAMES[kind];
+        }
+    }
+}
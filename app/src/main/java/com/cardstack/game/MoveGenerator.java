@@ -0,0 +1,112 @@
+package com.cardstack.game;
+
+/**
+ * Lists the legal moves of a GameState into a caller-owned int buffer, so search and
+ * simulation can enumerate, GameState.apply() and GameState.undo() without allocating.
+ *
+ * Turn moves belong to the current player: plays (a wild once per color), draw, pass,
+ * swap targets after a Seven-Zero seven, and challenge or accept after a Wild Draw Four.
+ * Jump-ins are exact matches of the top card that other players may throw in out of
+ * turn when the Jump-In rule is on.
+ */
+public final class MoveGenerator {
+    private static final int[] SUIT_COLORS = {
+        Card.Color.RED.ordinal(), Card.Color.BLUE.ordinal(),
+        Card.Color.GREEN.ordinal(), Card.Color.YELLOW.ordinal()
+    };
+    // 13 faces per suit color, plus two wild faces in four colors each
+    private static final int MAX_PLAYS = SUIT_COLORS.length * 13 + 2 * SUIT_COLORS.length;
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Buffer length that holds every legal move of a game with this many players.
+     */
+    public static int bufferSize(int playerCount) {
+        return MAX_PLAYS + 1 + playerCount;
+    }
+
+    /**
+     * Turn moves plus jump-ins. Returns the number of moves written.
+     */
+    public static int generate(GameState state, int[] moves) {
+        int count = generateTurnMoves(state, moves, 0);
+        return generateJumpIns(state, moves, count);
+    }
+
+    /**
+     * Moves of the current player, written from moves[offset]. Returns the new end.
+     */
+    public static int generateTurnMoves(GameState state, int[] moves, int offset) {
+        int count = offset;
+        if (state.isFinished()) {
+            return count;
+        }
+        int current = state.getCurrentPlayer();
+
+        switch (state.getPending()) {
+            case GameState.PENDING_SWAP:
+                for (int target = 0; target < state.getPlayerCount(); target++) {
+                    if (target != current) {
+                        moves[count++] = Move.swap(target);
+                    }
+                }
+                return count;
+            case GameState.PENDING_CHALLENGE:
+                moves[count++] = Move.challenge();
+                moves[count++] = Move.accept();
+                return count;
+            case GameState.PENDING_DRAWN:
+                return addPlays(Hand.bit(state.getPendingArg()), moves, count);
+            default:
+                break;
+        }
+
+        long playable = state.getPlayableMask(current);
+        count = addPlays(playable, moves, count);
+        if (state.isDrawAllowed()) {
+            moves[count++] = Move.draw();
+        } else if (playable == 0) {
+            moves[count++] = Move.pass(); // Turn skipped
+        }
+        return count;
+    }
+
+    /**
+     * Jump-ins by players other than the current one, written from moves[offset].
+     * Only offered at the start of a turn, on a number card. Returns the new end.
+     */
+    public static int generateJumpIns(GameState state, int[] moves, int offset) {
+        int count = offset;
+        int top = state.getTopCode();
+        if (!state.getRules().isJumpInEnabled() || state.isFinished()
+                || state.getPending() != GameState.PENDING_NONE
+                || Card.symbolOf(top) >= Card.SYMBOL_SKIP) {
+            return count;
+        }
+        for (int player = 0; player < state.getPlayerCount(); player++) {
+            if (player != state.getCurrentPlayer() && state.getCount(player, top) > 0) {
+                moves[count++] = Move.jumpIn(player, top);
+            }
+        }
+        return count;
+    }
+
+    // One PLAY per face in the mask; a wild (hand bit 13/14) once per color
+    private static int addPlays(long mask, int[] moves, int count) {
+        long remaining = mask;
+        while (remaining != 0) {
+            int bit = Long.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1;
+            if (Card.isWild(bit)) {
+                for (int color : SUIT_COLORS) {
+                    moves[count++] = Move.play((color << 4) | Card.symbolOf(bit));
+                }
+            } else {
+                moves[count++] = Move.play(bit);
+            }
+        }
+        return count;
+    }
+}
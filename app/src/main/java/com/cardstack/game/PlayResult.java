@@ -0,0 +1,69 @@
+package com.cardstack.game;
+
+/**
+ * Outcome of GameEngine.playCard: what happened and what the caller has to do next.
+ *
+ * The engine reuses a single instance, so a result is only valid until the next
+ * playCard call. Read what you need right away instead of holding on to it.
+ */
+public final class PlayResult {
+    public enum Kind {
+        // Card was played and the turn has moved on; nothing else to handle
+        NEXT_TURN,
+        // Card cannot be played on the current top card; nothing changed
+        INVALID,
+        // The player emptied their hand; value is the winner's player index
+        WIN,
+        // Progressive Draw: a draw card was stacked; value is the stack total
+        DRAW_STACKED,
+        // Seven-Zero: current player must pick someone to swap hands with
+        SEVEN_SWAP,
+        // Seven-Zero: all hands must be rotated
+        ZERO_ROTATE,
+        // Wild Draw Four may be challenged; value is the index of the player who played it
+        CHALLENGE_AVAILABLE
+    }
+
+    private Kind kind = Kind.NEXT_TURN;
+    private int value;
+    private Card.Type stackedType;
+
+    PlayResult set(Kind kind, int value) {
+        this.kind = kind;
+        this.value = value;
+        this.stackedType = null;
+        return this;
+    }
+
+    PlayResult setDrawStacked(int stackTotal, Card.Type stackedType) {
+        set(Kind.DRAW_STACKED, stackTotal);
+        this.stackedType = stackedType;
+        return this;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Winner index, stack total or challenged player index, depending on the kind.
+     */
+    public int getValue() {
+        return value;
+    }
+
+    /**
+     * DRAW_TWO or WILD_DRAW_FOUR for DRAW_STACKED results, otherwise null.
+     */
+    public Card.Type getStackedType() {
+        return stackedType;
+    }
+
+    /**
+     * True for the Seven-Zero results, where the engine leaves the turn with the
+     * current player until the caller has swapped or rotated hands.
+     */
+    public boolean isSevenZero() {
+        return kind == Kind.SEVEN_SWAP || kind == Kind.ZERO_ROTATE;
+    }
+}
@@ -0,0 +1,76 @@
+package com.cardstack.game;
+
+/**
+ * Precomputed playability. For every top card code (a played wild shows its chosen
+ * color) and both action-stacking settings, the table holds the Hand bit mask of every
+ * face that may be played on it. The rules are evaluated once, here, when the class
+ * loads; afterwards each check in the engine, the AI and the hand view is one array
+ * load and a bit test.
+ */
+public final class Playability {
+    // [(stacking ? CODE_LIMIT : 0) + topCode]
+    private static final long[] MASKS = new long[2 * Card.CODE_LIMIT];
+
+    static {
+        for (int stacking = 0; stacking < 2; stacking++) {
+            for (int topCode = 0; topCode < Card.CODE_LIMIT; topCode++) {
+                long mask = 0;
+                for (int bit = 0; bit < 64; bit++) {
+                    if (evaluate(bit, topCode, stacking == 1)) {
+                        mask |= 1L << bit;
+                    }
+                }
+                MASKS[stacking * Card.CODE_LIMIT + topCode] = mask;
+            }
+        }
+    }
+
+    private Playability() {
+    }
+
+    /**
+     * Faces playable on the top card, as a Hand bit mask.
+     */
+    public static long playableMask(int topCode, boolean allowActionStacking) {
+        return MASKS[(allowActionStacking ? Card.CODE_LIMIT : 0) + topCode];
+    }
+
+    public static boolean canPlay(int code, int topCode, boolean allowActionStacking) {
+        return (playableMask(topCode, allowActionStacking) & Hand.bit(code)) != 0;
+    }
+
+    // The rules themselves, on the face at a Hand bit (bits 13/14 of the first block are wilds)
+    private static boolean evaluate(int code, int topCode, boolean allowActionStacking) {
+        int symbol = Card.symbolOf(code);
+
+        // Wild cards can always be played
+        if (symbol >= Card.SYMBOL_WILD) {
+            return true;
+        }
+
+        int topColor = Card.colorOf(topCode);
+
+        // After a wild card was played, check against the chosen color
+        if (topColor == Card.Color.WILD.ordinal()) {
+            return true;
+        }
+
+        // Can play if colors match
+        if (Card.colorOf(code) == topColor) {
+            return true;
+        }
+
+        int topSymbol = Card.symbolOf(topCode);
+
+        // Can play if card types match (Skip on Skip, Reverse on Reverse, Draw Two on Draw Two)
+        // This allows action cards to be played on matching action cards regardless of color
+        // Only if action stacking is enabled in settings
+        if (allowActionStacking && symbol == topSymbol && symbol >= Card.SYMBOL_SKIP) {
+            return true;
+        }
+
+        // Number cards can match other number cards with the same number (regardless of color)
+        // Symbols 0-9 are the numbers themselves, so equal symbols below SYMBOL_SKIP mean equal numbers
+        return symbol < Card.SYMBOL_SKIP && symbol == topSymbol;
+    }
+}
@@ -1,12 +1,11 @@
 package com.cardstack.game;
 
-import java.util.ArrayList;
-import java.util.List;
-
 public class Player {
     private final String name;
-    private final List<Card> hand;
-    private final boolean isAI;
+    // Where the hand lives: a table of its own until GameEngine seats the player
+    private HandTable table;
+    private int seat;
+    private boolean isAI;
     private final PlayerProfile profile;
 
     public Player(String name, boolean isAI) {
@@ -16,7 +15,8 @@ public class Player {
     public Player(String name, boolean isAI, PlayerProfile profile) {
         this.name = name;
         this.isAI = isAI;
-        this.hand = new ArrayList<>();
+        this.table = new HandTable();
+        this.seat = table.add(new Hand());
         this.profile = profile;
     }
 
@@ -39,24 +39,37 @@ public class Player {
         return isAI;
     }
 
-    public List<Card> getHand() {
-        return hand;
+    /**
+     * Hand the player to the built-in AI or back, e.g. when a networked player leaves.
+     */
+    public void setAI(boolean isAI) {
+        this.isAI = isAI;
+    }
+
+    public Hand getHand() {
+        return table.get(seat);
+    }
+
+    // GameEngine only: move the current hand into the game's table
+    void seatAt(HandTable table) {
+        seat = table.add(getHand());
+        this.table = table;
     }
 
     public void addCard(Card card) {
-        hand.add(card);
+        getHand().add(card);
     }
 
     public void removeCard(Card card) {
-        hand.remove(card);
+        getHand().remove(card);
     }
 
     public int getCardCount() {
-        return hand.size();
+        return getHand().size();
     }
 
     public boolean hasWon() {
-        return hand.isEmpty();
+        return getHand().isEmpty();
     }
 
     public Card chooseCardToPlay(Card topCard, boolean allowActionStacking) {
@@ -64,42 +77,36 @@ public class Player {
             return null;
         }
 
-        List<Card> playableCards = new ArrayList<>();
-        for (Card card : hand) {
-            if (card.canPlayOn(topCard, allowActionStacking)) {
-                playableCards.add(card);
-            }
-        }
-
-        if (playableCards.isEmpty()) {
+        Hand hand = getHand();
+        long playable = hand.playableMask(topCard.getCode(), allowActionStacking);
+        if (playable == 0) {
             return null;
         }
 
-        for (Card card : playableCards) {
-            if (card.getType() == Card.Type.WILD_DRAW_FOUR) {
-                return card;
-            }
+        // Priority: Wild Draw Four, Draw Two, Skip/Reverse, Wild, then anything else,
+        // taking the first matching card in hand order within each group
+        long drawFours = playable & Hand.symbolMask(Card.SYMBOL_WILD_DRAW_FOUR);
+        if (drawFours != 0) {
+            return hand.firstInMask(drawFours);
         }
 
-        for (Card card : playableCards) {
-            if (card.getType() == Card.Type.DRAW_TWO) {
-                return card;
-            }
+        long drawTwos = playable & Hand.symbolMask(Card.SYMBOL_DRAW_TWO);
+        if (drawTwos != 0) {
+            return hand.firstInMask(drawTwos);
         }
 
-        for (Card card : playableCards) {
-            if (card.getType() == Card.Type.SKIP || card.getType() == Card.Type.REVERSE) {
-                return card;
-            }
+        long skipsAndReverses = playable
+                & (Hand.symbolMask(Card.SYMBOL_SKIP) | Hand.symbolMask(Card.SYMBOL_REVERSE));
+        if (skipsAndReverses != 0) {
+            return hand.firstInMask(skipsAndReverses);
         }
 
-        for (Card card : playableCards) {
-            if (card.getType() == Card.Type.WILD) {
-                return card;
-            }
+        long wilds = playable & Hand.symbolMask(Card.SYMBOL_WILD);
+        if (wilds != 0) {
+            return hand.firstInMask(wilds);
         }
 
-        return playableCards.get(0);
+        return hand.firstInMask(playable);
     }
 
     public Card.Color chooseWildColor() {
@@ -107,42 +114,14 @@ public class Player {
             return null;
         }
 
-        int[] colorCounts = new int[4];
-        for (Card card : hand) {
-            switch (card.getColor()) {
-                case RED:
-                    colorCounts[0]++;
-                    break;
-                case BLUE:
-                    colorCounts[1]++;
-                    break;
-                case GREEN:
-                    colorCounts[2]++;
-                    break;
-                case YELLOW:
-                    colorCounts[3]++;
-                    break;
+        Hand hand = getHand();
+        Card.Color[] colors = {Card.Color.RED, Card.Color.BLUE, Card.Color.GREEN, Card.Color.YELLOW};
+        Card.Color best = Card.Color.RED;
+        for (Card.Color color : colors) {
+            if (hand.getColorCount(color) > hand.getColorCount(best)) {
+                best = color;
             }
         }
-
-        int maxIndex = 0;
-        for (int i = 1; i < 4; i++) {
-            if (colorCounts[i] > colorCounts[maxIndex]) {
-                maxIndex = i;
-            }
-        }
-
-        switch (maxIndex) {
-            case 0:
-                return Card.Color.RED;
-            case 1:
-                return Card.Color.BLUE;
-            case 2:
-                return Card.Color.GREEN;
-            case 3:
-                return Card.Color.YELLOW;
-            default:
-                return Card.Color.RED;
-        }
+        return best;
     }
 }
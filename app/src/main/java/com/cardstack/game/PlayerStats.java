@@ -7,7 +7,10 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
@@ -26,16 +29,35 @@ public class PlayerStats {
     private static final String KEY_TOTAL_PLAY_TIME = "total_play_time";
     private static final String KEY_WIN_STREAK = "win_streak";
     private static final String KEY_BEST_STREAK = "best_streak";
-    private static final String KEY_MATCH_HISTORY = "match_history";
+    private static final String KEY_MATCH_HISTORY = "match_history"; // Legacy JSON history, migrated to MATCH_LOG_FILE
+    private static final String MATCH_LOG_FILE = "match_history.bin";
     private static final String KEY_PLAYER_NAME = "player_name";
     private static final String KEY_PLAYER_AVATAR = "player_avatar";
     
     private final SharedPreferences prefs;
+    private final MatchHistoryLog matchLog;
+    private final StatsDatabase database;
     private long currentGameStartTime;
     private int currentGameCardsPlayed;
+    private int currentGameCardsDrawn;
+    private int currentGameRuleMask;
+    private final List<PlayerProfile> currentGameOpponents = new ArrayList<>();
+    // Cards played this game, stored as card_events rows when the game ends
+    private int[] currentGamePlayedCodes = new int[32];
+    private long[] currentGamePlayedAt = new long[32];
+    
+    // Counter increments not yet written to prefs. Card plays and draws only touch these;
+    // they are written together with everything else in one edit at game end, or by
+    // flush() when the activity pauses, so a game costs one or two disk writes.
+    private int pendingCardsPlayed;
+    private int pendingSpecialCardsPlayed;
+    private int pendingWildsPlayed;
+    private int pendingCardsDrawn;
     
     public PlayerStats(Context context) {
         prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        matchLog = new MatchHistoryLog(new File(context.getFilesDir(), MATCH_LOG_FILE));
+        database = StatsDatabase.getInstance(context);
         currentGameStartTime = 0;
         currentGameCardsPlayed = 0;
     }
@@ -58,70 +80,148 @@ public class PlayerStats {
     }
     
     // Game tracking
-    public void startGame() {
+    public void startGame(int ruleMask, List<PlayerProfile> opponents) {
         currentGameStartTime = System.currentTimeMillis();
         currentGameCardsPlayed = 0;
+        currentGameCardsDrawn = 0;
+        currentGameRuleMask = ruleMask;
+        currentGameOpponents.clear();
+        currentGameOpponents.addAll(opponents);
     }
     
-    public void recordCardPlayed(Card.Type type) {
+    public void recordCardPlayed(Card card) {
+        if (currentGameCardsPlayed == currentGamePlayedCodes.length) {
+            currentGamePlayedCodes = Arrays.copyOf(currentGamePlayedCodes, currentGameCardsPlayed * 2);
+            currentGamePlayedAt = Arrays.copyOf(currentGamePlayedAt, currentGameCardsPlayed * 2);
+        }
+        currentGamePlayedCodes[currentGameCardsPlayed] = card.getCode();
+        currentGamePlayedAt[currentGameCardsPlayed] = System.currentTimeMillis();
         currentGameCardsPlayed++;
-        incrementStat(KEY_CARDS_PLAYED);
+        pendingCardsPlayed++;
+        
+        Card.Type type = card.getType();
         
         if (type != Card.Type.NUMBER) {
-            incrementStat(KEY_SPECIAL_CARDS_PLAYED);
+            pendingSpecialCardsPlayed++;
         }
         
         if (type == Card.Type.WILD || type == Card.Type.WILD_DRAW_FOUR) {
-            incrementStat(KEY_WILDS_PLAYED);
+            pendingWildsPlayed++;
         }
     }
     
     public void recordCardDrawn() {
-        incrementStat(KEY_CARDS_DRAWN);
+        recordCardsDrawn(1);
+    }
+    
+    public void recordCardsDrawn(int count) {
+        currentGameCardsDrawn += count;
+        pendingCardsDrawn += count;
     }
     
     public void recordWin() {
         long gameDuration = (System.currentTimeMillis() - currentGameStartTime) / 1000; // seconds
         
-        incrementStat(KEY_TOTAL_GAMES);
-        incrementStat(KEY_GAMES_WON);
-        addToStat(KEY_TOTAL_PLAY_TIME, gameDuration);
+        SharedPreferences.Editor editor = prefs.edit();
+        writePending(editor);
+        incrementStat(editor, KEY_TOTAL_GAMES);
+        incrementStat(editor, KEY_GAMES_WON);
+        addToStat(editor, KEY_TOTAL_PLAY_TIME, gameDuration);
         
         // Update win streak
         int currentStreak = prefs.getInt(KEY_WIN_STREAK, 0) + 1;
-        prefs.edit().putInt(KEY_WIN_STREAK, currentStreak).apply();
+        editor.putInt(KEY_WIN_STREAK, currentStreak);
         
         int bestStreak = prefs.getInt(KEY_BEST_STREAK, 0);
         if (currentStreak > bestStreak) {
-            prefs.edit().putInt(KEY_BEST_STREAK, currentStreak).apply();
+            editor.putInt(KEY_BEST_STREAK, currentStreak);
         }
         
         // Update fastest win
         long fastestWin = prefs.getLong(KEY_FASTEST_WIN, Long.MAX_VALUE);
         if (gameDuration < fastestWin) {
-            prefs.edit().putLong(KEY_FASTEST_WIN, gameDuration).apply();
+            editor.putLong(KEY_FASTEST_WIN, gameDuration);
         }
         
         // Update longest game
         long longestGame = prefs.getLong(KEY_LONGEST_GAME, 0);
         if (gameDuration > longestGame) {
-            prefs.edit().putLong(KEY_LONGEST_GAME, gameDuration).apply();
+            editor.putLong(KEY_LONGEST_GAME, gameDuration);
         }
         
+        editor.apply();
         addMatchHistory(true, gameDuration, currentGameCardsPlayed);
+        recordGame(true, getPlayerName(), gameDuration);
     }
     
     public void recordLoss(String winner) {
         long gameDuration = (System.currentTimeMillis() - currentGameStartTime) / 1000;
         
-        incrementStat(KEY_TOTAL_GAMES);
-        incrementStat(KEY_GAMES_LOST);
-        addToStat(KEY_TOTAL_PLAY_TIME, gameDuration);
+        SharedPreferences.Editor editor = prefs.edit();
+        writePending(editor);
+        incrementStat(editor, KEY_TOTAL_GAMES);
+        incrementStat(editor, KEY_GAMES_LOST);
+        addToStat(editor, KEY_TOTAL_PLAY_TIME, gameDuration);
         
         // Reset win streak
-        prefs.edit().putInt(KEY_WIN_STREAK, 0).apply();
+        editor.putInt(KEY_WIN_STREAK, 0);
         
+        editor.apply();
         addMatchHistory(false, gameDuration, currentGameCardsPlayed);
+        recordGame(false, winner, gameDuration);
+    }
+    
+    // Hand the finished game to the SQLite store, which writes it on its own thread
+    private void recordGame(boolean won, String winner, long duration) {
+        StatsDatabase.GameRecord record = new StatsDatabase.GameRecord();
+        record.startedAt = currentGameStartTime;
+        record.duration = duration;
+        record.won = won;
+        record.winner = winner;
+        record.ruleMask = currentGameRuleMask;
+        record.cardsPlayed = currentGameCardsPlayed;
+        record.cardsDrawn = currentGameCardsDrawn;
+        record.opponents.addAll(currentGameOpponents);
+        record.playedCodes = Arrays.copyOf(currentGamePlayedCodes, currentGameCardsPlayed);
+        record.playedAt = Arrays.copyOf(currentGamePlayedAt, currentGameCardsPlayed);
+        database.recordGameAsync(record);
+    }
+    
+    /**
+     * SQLite store behind these stats; run its breakdown queries through StatsDatabase.execute().
+     */
+    public StatsDatabase getDatabase() {
+        return database;
+    }
+    
+    /**
+     * Write counters batched since the last write in a single edit.
+     * Call from onPause so nothing is lost if the process is killed in the background.
+     */
+    public void flush() {
+        if (!hasPending()) {
+            return;
+        }
+        SharedPreferences.Editor editor = prefs.edit();
+        writePending(editor);
+        editor.apply();
+    }
+    
+    private boolean hasPending() {
+        return pendingCardsPlayed != 0 || pendingSpecialCardsPlayed != 0
+                || pendingWildsPlayed != 0 || pendingCardsDrawn != 0;
+    }
+    
+    // Adds the pending counters to the editor and clears them
+    private void writePending(SharedPreferences.Editor editor) {
+        addToStat(editor, KEY_CARDS_PLAYED, pendingCardsPlayed);
+        addToStat(editor, KEY_SPECIAL_CARDS_PLAYED, pendingSpecialCardsPlayed);
+        addToStat(editor, KEY_WILDS_PLAYED, pendingWildsPlayed);
+        addToStat(editor, KEY_CARDS_DRAWN, pendingCardsDrawn);
+        pendingCardsPlayed = 0;
+        pendingSpecialCardsPlayed = 0;
+        pendingWildsPlayed = 0;
+        pendingCardsDrawn = 0;
     }
     
     // Statistics getters
@@ -138,19 +238,19 @@ public class PlayerStats {
     }
     
     public int getCardsPlayed() {
-        return prefs.getInt(KEY_CARDS_PLAYED, 0);
+        return prefs.getInt(KEY_CARDS_PLAYED, 0) + pendingCardsPlayed;
     }
     
     public int getCardsDrawn() {
-        return prefs.getInt(KEY_CARDS_DRAWN, 0);
+        return prefs.getInt(KEY_CARDS_DRAWN, 0) + pendingCardsDrawn;
     }
     
     public int getSpecialCardsPlayed() {
-        return prefs.getInt(KEY_SPECIAL_CARDS_PLAYED, 0);
+        return prefs.getInt(KEY_SPECIAL_CARDS_PLAYED, 0) + pendingSpecialCardsPlayed;
     }
     
     public int getWildsPlayed() {
-        return prefs.getInt(KEY_WILDS_PLAYED, 0);
+        return prefs.getInt(KEY_WILDS_PLAYED, 0) + pendingWildsPlayed;
     }
     
     public long getFastestWin() {
@@ -188,72 +288,85 @@ public class PlayerStats {
     // Match history
     private void addMatchHistory(boolean won, long duration, int cardsPlayed) {
         try {
-            String historyJson = prefs.getString(KEY_MATCH_HISTORY, "[]");
-            JSONArray history = new JSONArray(historyJson);
-            
-            JSONObject match = new JSONObject();
-            match.put("won", won);
-            match.put("duration", duration);
-            match.put("cardsPlayed", cardsPlayed);
-            match.put("timestamp", System.currentTimeMillis());
-            
-            history.put(match);
-            
-            // Keep only last 50 matches
-            if (history.length() > 50) {
-                JSONArray trimmed = new JSONArray();
-                for (int i = history.length() - 50; i < history.length(); i++) {
-                    trimmed.put(history.get(i));
-                }
-                history = trimmed;
-            }
-            
-            prefs.edit().putString(KEY_MATCH_HISTORY, history.toString()).apply();
-        } catch (JSONException e) {
+            migrateJsonHistory();
+            matchLog.append(new MatchResult(won, duration, cardsPlayed, System.currentTimeMillis()));
+        } catch (IOException e) {
             e.printStackTrace();
         }
     }
     
     public List<MatchResult> getRecentMatches(int count) {
-        List<MatchResult> matches = new ArrayList<>();
         try {
-            String historyJson = prefs.getString(KEY_MATCH_HISTORY, "[]");
-            JSONArray history = new JSONArray(historyJson);
-            
-            int start = Math.max(0, history.length() - count);
-            for (int i = history.length() - 1; i >= start; i--) {
-                JSONObject match = history.getJSONObject(i);
-                matches.add(new MatchResult(
-                    match.getBoolean("won"),
-                    match.getLong("duration"),
-                    match.getInt("cardsPlayed"),
-                    match.getLong("timestamp")
-                ));
-            }
-        } catch (JSONException e) {
+            migrateJsonHistory();
+            return matchLog.readRecent(count);
+        } catch (IOException e) {
             e.printStackTrace();
+            return new ArrayList<>();
         }
-        return matches;
+    }
+    
+    // One-time move of the old JSON history in prefs into the binary log
+    private void migrateJsonHistory() throws IOException {
+        if (!prefs.contains(KEY_MATCH_HISTORY)) {
+            return;
+        }
+        
+        // A non-empty log means an earlier migration got as far as writing it
+        if (matchLog.size() == 0) {
+            List<MatchResult> matches = new ArrayList<>();
+            try {
+                JSONArray history = new JSONArray(prefs.getString(KEY_MATCH_HISTORY, "[]"));
+                for (int i = 0; i < history.length(); i++) {
+                    JSONObject match = history.getJSONObject(i);
+                    matches.add(new MatchResult(
+                        match.getBoolean("won"),
+                        match.getLong("duration"),
+                        match.getInt("cardsPlayed"),
+                        match.getLong("timestamp")
+                    ));
+                }
+            } catch (JSONException e) {
+                e.printStackTrace();
+            }
+            matchLog.appendAll(matches);
+        }
+        prefs.edit().remove(KEY_MATCH_HISTORY).apply();
     }
     
     // Reset stats
     public void resetStats() {
         String playerName = getPlayerName();
         String playerAvatar = getPlayerAvatar();
-        prefs.edit().clear().apply();
-        setPlayerName(playerName);
-        setPlayerAvatar(playerAvatar);
+        prefs.edit()
+                .clear()
+                .putString(KEY_PLAYER_NAME, playerName)
+                .putString(KEY_PLAYER_AVATAR, playerAvatar)
+                .apply();
+        pendingCardsPlayed = 0;
+        pendingSpecialCardsPlayed = 0;
+        pendingWildsPlayed = 0;
+        pendingCardsDrawn = 0;
+        try {
+            matchLog.clear();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        database.execute(database::clear);
     }
     
     // Helper methods
-    private void incrementStat(String key) {
+    private void incrementStat(SharedPreferences.Editor editor, String key) {
+        addToStat(editor, key, 1);
+    }
+    
+    private void addToStat(SharedPreferences.Editor editor, String key, int value) {
         int current = prefs.getInt(key, 0);
-        prefs.edit().putInt(key, current + 1).apply();
+        editor.putInt(key, current + value);
     }
     
-    private void addToStat(String key, long value) {
+    private void addToStat(SharedPreferences.Editor editor, String key, long value) {
         long current = prefs.getLong(key, 0);
-        prefs.edit().putLong(key, current + value).apply();
+        editor.putLong(key, current + value);
     }
     
     // Match result class
@@ -0,0 +1,195 @@
+package com.cardstack.game;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A recorded game: the deck seed, the rule snapshot, the number of decks, the seating
+ * and the stream of GameEngine calls made during play. Replaying the calls on an engine
+ * built from the same seed reproduces the game exactly (see ReplayPlayer); the digest
+ * of the final position lets a replay check that it still ends where the recording did.
+ *
+ * Operations are one opcode byte followed by varint arguments, so a typical move costs
+ * two or three bytes. Several replays can be written back to back into one stream,
+ * e.g. a regression corpus; read() returns null at the end.
+ *
+ * Layout: magic (int), version (byte), seed (long), rule mask (int), starting cards
+ * (byte), deck count (byte, version 2 on; version 1 replays used one deck), player count
+ * (byte), then per player AI flag (boolean) and name (UTF), then operation count (int),
+ * operation bytes length (int), operation bytes, digest (int).
+ */
+public final class Replay {
+    public static final int MAX_COUNT = 0xFF; // Starting cards, decks and players are one byte each
+
+    private static final int MAGIC = 0x43535250; // "CSRP"
+    private static final int VERSION = 2;
+
+    // Opcodes, one per recorded GameEngine call; arguments follow in this order
+    static final int OP_PLAY = 1;          // code as it lies on the pile (a wild with its color)
+    static final int OP_DRAW = 2;          // drawCard(), added to the current player's hand
+    static final int OP_DRAW_CARDS = 3;    // player, count
+    static final int OP_NEXT_PLAYER = 4;
+    static final int OP_SWAP = 5;          // target player
+    static final int OP_ROTATE = 6;
+    static final int OP_RESOLVE_STACK = 7;
+    static final int OP_RESET_STACK = 8;
+    static final int OP_CHALLENGE = 9;     // 1 if it succeeded, challenged player
+    static final int OP_JUMP_IN = 10;      // player, code
+
+    private final long seed;
+    private final RuleSet rules;
+    private final int deckCount;
+    private final String[] names;
+    private final boolean[] ai;
+    private final int operationCount;
+    private final byte[] operations;
+    private final int digest;
+
+    Replay(long seed, RuleSet rules, int deckCount, String[] names, boolean[] ai,
+           int operationCount, byte[] operations, int digest) {
+        this.seed = seed;
+        this.rules = rules;
+        this.deckCount = deckCount;
+        this.names = names;
+        this.ai = ai;
+        this.operationCount = operationCount;
+        this.operations = operations;
+        this.digest = digest;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public RuleSet getRules() {
+        return rules;
+    }
+
+    public int getDeckCount() {
+        return deckCount;
+    }
+
+    public int getPlayerCount() {
+        return names.length;
+    }
+
+    public String getPlayerName(int index) {
+        return names[index];
+    }
+
+    public boolean isAI(int index) {
+        return ai[index];
+    }
+
+    public int getOperationCount() {
+        return operationCount;
+    }
+
+    /**
+     * Size of the operation stream in bytes.
+     */
+    public int getOperationBytes() {
+        return operations.length;
+    }
+
+    public int getDigest() {
+        return digest;
+    }
+
+    // Read by ReplayPlayer; not copied, so never hand it out
+    byte[] operations() {
+        return operations;
+    }
+
+    public void write(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(seed);
+        out.writeInt(rules.getMask());
+        out.writeByte(rules.getStartingCards());
+        out.writeByte(deckCount);
+        out.writeByte(names.length);
+        for (int i = 0; i < names.length; i++) {
+            out.writeBoolean(ai[i]);
+            out.writeUTF(names[i]);
+        }
+        out.writeInt(operationCount);
+        out.writeInt(operations.length);
+        out.write(operations);
+        out.writeInt(digest);
+    }
+
+    // Rejects games whose header would not survive write(), before any of it is played
+    static void checkCounts(int startingCards, int deckCount, int playerCount) {
+        if (startingCards > MAX_COUNT || deckCount < 1 || deckCount > MAX_COUNT || playerCount > MAX_COUNT) {
+            throw new IllegalArgumentException("Replays hold at most " + MAX_COUNT
+                    + " starting cards, decks and players: " + startingCards + ", " + deckCount
+                    + ", " + playerCount);
+        }
+    }
+
+    /**
+     * Next replay in the stream, or null if the stream ends before one starts.
+     */
+    public static Replay read(DataInputStream in) throws IOException {
+        int magic;
+        try {
+            magic = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        if (magic != MAGIC) {
+            throw new IOException("Not a replay");
+        }
+        int version = in.readUnsignedByte();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported replay version " + version);
+        }
+        long seed = in.readLong();
+        int mask = in.readInt();
+        int startingCards = in.readUnsignedByte();
+        int deckCount = version >= 2 ? in.readUnsignedByte() : 1;
+        int playerCount = in.readUnsignedByte();
+        String[] names = new String[playerCount];
+        boolean[] ai = new boolean[playerCount];
+        for (int i = 0; i < playerCount; i++) {
+            ai[i] = in.readBoolean();
+            names[i] = in.readUTF();
+        }
+        int operationCount = in.readInt();
+        byte[] operations = new byte[in.readInt()];
+        in.readFully(operations);
+        int digest = in.readInt();
+        return new Replay(seed, RuleSet.fromMask(mask, startingCards), deckCount, names, ai,
+                operationCount, operations, digest);
+    }
+
+    /**
+     * Hash of everything a game position consists of: each hand as a multiset, the top
+     * card with its chosen color, whose turn it is and in which direction, the draw
+     * pile size, the discard pile size and any pending progressive stack.
+     */
+    public static int digest(GameEngine engine) {
+        int hash = engine.getTopCardCode();
+        hash = hash * 31 + engine.getCurrentPlayerIndex();
+        hash = hash * 31 + (engine.isClockwise() ? 1 : 0);
+        hash = hash * 31 + engine.getDeckSize();
+        hash = hash * 31 + engine.getDiscardPile().size();
+        hash = hash * 31 + engine.getProgressiveDrawStack();
+        int[] counts = new int[Card.CODE_LIMIT];
+        List<Player> players = engine.getPlayers();
+        for (Player player : players) {
+            for (Card card : player.getHand()) {
+                counts[card.getCode()]++;
+            }
+            for (int code = 0; code < counts.length; code++) {
+                hash = hash * 31 + counts[code];
+                counts[code] = 0;
+            }
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,155 @@
+package com.cardstack.game;
+
+/**
+ * Plays a Replay back on a fresh GameEngine, without UI or AI: the engine is rebuilt
+ * from the recorded seed, rules, decks and seats, dealt, and then receives exactly the
+ * calls that were recorded. step() applies one call, fastForward() all of them.
+ *
+ * A recorded call the engine no longer accepts (a card that is not in the hand or no
+ * longer playable) throws IllegalStateException naming the operation, so a corpus of
+ * replays doubles as a regression test for engine changes: each replay must play to
+ * the end and matchesRecording() must hold.
+ */
+public class ReplayPlayer {
+    private final Replay replay;
+    private final GameEngine engine;
+    private final byte[] operations;
+    private int offset;
+    private int position;
+    private int winnerIndex = -1;
+
+    public ReplayPlayer(Replay replay) {
+        this.replay = replay;
+        operations = replay.operations();
+        engine = new GameEngine(replay.getRules(), new SplitMixGameRandom(replay.getSeed()), replay.getDeckCount());
+        for (int i = 0; i < replay.getPlayerCount(); i++) {
+            engine.addPlayer(new Player(replay.getPlayerName(i), replay.isAI(i)));
+        }
+        engine.startGame();
+    }
+
+    /**
+     * Apply the next recorded call. Returns false once the replay is exhausted.
+     */
+    public boolean step() {
+        if (offset >= operations.length) {
+            return false;
+        }
+        int op = readVarint();
+        switch (op) {
+            case Replay.OP_PLAY:
+                play(readVarint());
+                break;
+            case Replay.OP_DRAW: {
+                Card card = engine.drawCard();
+                if (card != null) {
+                    engine.getCurrentPlayer().addCard(card);
+                }
+                break;
+            }
+            case Replay.OP_DRAW_CARDS: {
+                int player = readVarint();
+                engine.drawCards(engine.getPlayers().get(player), readVarint());
+                break;
+            }
+            case Replay.OP_NEXT_PLAYER:
+                engine.nextPlayer();
+                break;
+            case Replay.OP_SWAP:
+                engine.swapHandsWithPlayer(readVarint());
+                break;
+            case Replay.OP_ROTATE:
+                engine.rotateAllHands();
+                break;
+            case Replay.OP_RESOLVE_STACK:
+                engine.resolveProgressiveStack();
+                break;
+            case Replay.OP_RESET_STACK:
+                engine.resetProgressiveStack();
+                break;
+            case Replay.OP_CHALLENGE: {
+                boolean succeeded = readVarint() != 0;
+                engine.executeChallengeResult(succeeded, readVarint());
+                break;
+            }
+            case Replay.OP_JUMP_IN: {
+                int player = readVarint();
+                Card card = Card.fromCode(readVarint());
+                requireInHand(engine.getPlayers().get(player), card);
+                engine.jumpInPlay(player, card);
+                break;
+            }
+            default:
+                throw new IllegalStateException("Unknown replay operation " + op + " at " + position);
+        }
+        position++;
+        return true;
+    }
+
+    /**
+     * Apply every remaining call and return the engine in the final position.
+     */
+    public GameEngine fastForward() {
+        while (step()) {
+            // Keep going
+        }
+        return engine;
+    }
+
+    /**
+     * True if the engine is where the recording left it. Meaningful after fastForward().
+     */
+    public boolean matchesRecording() {
+        return Replay.digest(engine) == replay.getDigest();
+    }
+
+    public GameEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Number of recorded calls applied so far.
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Index of the player whose recorded play won, or -1.
+     */
+    public int getWinnerIndex() {
+        return winnerIndex;
+    }
+
+    private void play(int code) {
+        Card face = Card.fromCode(code);
+        Card card = Card.isWild(code) ? face.withColor(Card.Color.WILD) : face;
+        requireInHand(engine.getCurrentPlayer(), card);
+        PlayResult result = engine.playCard(card, face.getColor());
+        if (result.getKind() == PlayResult.Kind.INVALID) {
+            throw new IllegalStateException("Replay diverged at " + position + ": "
+                    + face.getDisplayText() + " is not playable");
+        }
+        if (result.getKind() == PlayResult.Kind.WIN) {
+            winnerIndex = result.getValue();
+        }
+    }
+
+    private void requireInHand(Player player, Card card) {
+        if (player.getHand().getCount(card) == 0) {
+            throw new IllegalStateException("Replay diverged at " + position + ": "
+                    + player.getName() + " does not hold " + card.getDisplayText());
+        }
+    }
+
+    private int readVarint() {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = operations[offset++];
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+}
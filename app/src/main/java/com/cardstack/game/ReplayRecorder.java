@@ -0,0 +1,83 @@
+package com.cardstack.game;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Records a game as it is played. Attach one to a GameEngine built on a
+ * SplitMixGameRandom with the same seed, before startGame(); the engine then reports
+ * every state-changing call it receives, and toReplay() packs them into a Replay.
+ *
+ * Only calls made from outside the engine are recorded, since the engine repeats its
+ * own follow-up work (effects, draws, turn changes) on replay. Like the engine, a
+ * recorder is confined to the thread that plays the game.
+ */
+public class ReplayRecorder {
+    private final long seed;
+    private RuleSet rules;
+    private int deckCount;
+    private String[] names;
+    private boolean[] ai;
+    private byte[] buffer = new byte[256];
+    private int length;
+    private int operationCount;
+
+    public ReplayRecorder(long seed) {
+        this.seed = seed;
+    }
+
+    // Called by GameEngine.startGame, once the seats are filled
+    void begin(RuleSet rules, int deckCount, List<Player> players) {
+        Replay.checkCounts(rules.getStartingCards(), deckCount, players.size());
+        this.rules = rules;
+        this.deckCount = deckCount;
+        names = new String[players.size()];
+        ai = new boolean[players.size()];
+        for (int i = 0; i < players.size(); i++) {
+            names[i] = players.get(i).getName();
+            ai[i] = players.get(i).isAI();
+        }
+    }
+
+    void record(int op) {
+        operationCount++;
+        writeVarint(op);
+    }
+
+    void record(int op, int arg) {
+        record(op);
+        writeVarint(arg);
+    }
+
+    void record(int op, int first, int second) {
+        record(op, first);
+        writeVarint(second);
+    }
+
+    /**
+     * The game so far, with the digest of the engine's current position.
+     */
+    public Replay toReplay(GameEngine engine) {
+        if (rules == null) {
+            throw new IllegalStateException("Game not started");
+        }
+        return new Replay(seed, rules, deckCount, names.clone(), ai.clone(), operationCount,
+                Arrays.copyOf(buffer, length), Replay.digest(engine));
+    }
+
+    public int getOperationCount() {
+        return operationCount;
+    }
+
+    // Seven bits per byte, high bit set on all but the last
+    private void writeVarint(int value) {
+        if (length + 5 > buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        while ((value & ~0x7F) != 0) {
+            buffer[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[length++] = (byte) value;
+    }
+}
@@ -0,0 +1,161 @@
+package com.cardstack.game;
+
+/**
+ * Immutable snapshot of a rule combination. GameEngine takes one at construction, so
+ * every rule check during play is a final field read instead of a SharedPreferences
+ * lookup, and rules cannot change under a game in progress.
+ *
+ * Needs no Android Context: headless tools build one straight from a GameRules bit mask.
+ */
+public final class RuleSet implements GameRules {
+    private static final String[] RULE_NAMES = {
+        "action-stacking", "draw-on-no-play", "jump-in", "seven-zero",
+        "progressive-draw", "force-play", "challenge-draw-four", "draw-to-match"
+    };
+
+    // Same defaults GameSettings ships with
+    public static final int DEFAULT_MASK = RULE_ACTION_STACKING | RULE_DRAW_ON_NO_PLAY;
+    public static final int DEFAULT_STARTING_CARDS = 7;
+
+    private final int mask;
+    private final int startingCards;
+    private final boolean actionStacking;
+    private final boolean drawOnNoPlay;
+    private final boolean jumpIn;
+    private final boolean sevenZero;
+    private final boolean progressiveDraw;
+    private final boolean forcePlay;
+    private final boolean challengeDrawFour;
+    private final boolean drawToMatch;
+
+    private RuleSet(int mask, int startingCards) {
+        this.mask = mask;
+        this.startingCards = startingCards;
+        actionStacking = (mask & RULE_ACTION_STACKING) != 0;
+        drawOnNoPlay = (mask & RULE_DRAW_ON_NO_PLAY) != 0;
+        jumpIn = (mask & RULE_JUMP_IN) != 0;
+        sevenZero = (mask & RULE_SEVEN_ZERO) != 0;
+        progressiveDraw = (mask & RULE_PROGRESSIVE_DRAW) != 0;
+        forcePlay = (mask & RULE_FORCE_PLAY) != 0;
+        challengeDrawFour = (mask & RULE_CHALLENGE_DRAW_FOUR) != 0;
+        drawToMatch = (mask & RULE_DRAW_TO_MATCH) != 0;
+    }
+
+    public static RuleSet fromMask(int mask, int startingCards) {
+        return new RuleSet(mask, startingCards);
+    }
+
+    /**
+     * Read every rule once. Returns the argument itself if it already is a RuleSet.
+     */
+    public static RuleSet of(GameRules rules) {
+        if (rules instanceof RuleSet) {
+            return (RuleSet) rules;
+        }
+        return new RuleSet(maskOf(rules), rules.getStartingCards());
+    }
+
+    /**
+     * Pack the enabled rules of any GameRules into RULE_* bits.
+     */
+    public static int maskOf(GameRules rules) {
+        int mask = 0;
+        if (rules.isActionStackingEnabled()) mask |= RULE_ACTION_STACKING;
+        if (rules.isDrawOnNoPlayEnabled()) mask |= RULE_DRAW_ON_NO_PLAY;
+        if (rules.isJumpInEnabled()) mask |= RULE_JUMP_IN;
+        if (rules.isSevenZeroRuleEnabled()) mask |= RULE_SEVEN_ZERO;
+        if (rules.isProgressiveDrawEnabled()) mask |= RULE_PROGRESSIVE_DRAW;
+        if (rules.isForcePlayEnabled()) mask |= RULE_FORCE_PLAY;
+        if (rules.isChallengeDrawFourEnabled()) mask |= RULE_CHALLENGE_DRAW_FOUR;
+        if (rules.isDrawToMatchEnabled()) mask |= RULE_DRAW_TO_MATCH;
+        return mask;
+    }
+
+    public int getMask() {
+        return mask;
+    }
+
+    public static String ruleName(int rule) {
+        return RULE_NAMES[Integer.numberOfTrailingZeros(rule)];
+    }
+
+    /**
+     * Short label listing the enabled rules, e.g. "action-stacking+seven-zero".
+     */
+    public String describe() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < RULE_COUNT; i++) {
+            if ((mask & (1 << i)) != 0) {
+                if (sb.length() > 0) {
+                    sb.append('+');
+                }
+                sb.append(RULE_NAMES[i]);
+            }
+        }
+        return sb.length() > 0 ? sb.toString() : "none";
+    }
+
+    @Override
+    public int getStartingCards() {
+        return startingCards;
+    }
+
+    @Override
+    public boolean isActionStackingEnabled() {
+        return actionStacking;
+    }
+
+    @Override
+    public boolean isDrawOnNoPlayEnabled() {
+        return drawOnNoPlay;
+    }
+
+    @Override
+    public boolean isJumpInEnabled() {
+        return jumpIn;
+    }
+
+    @Override
+    public boolean isSevenZeroRuleEnabled() {
+        return sevenZero;
+    }
+
+    @Override
+    public boolean isProgressiveDrawEnabled() {
+        return progressiveDraw;
+    }
+
+    @Override
+    public boolean isForcePlayEnabled() {
+        return forcePlay;
+    }
+
+    @Override
+    public boolean isChallengeDrawFourEnabled() {
+        return challengeDrawFour;
+    }
+
+    @Override
+    public boolean isDrawToMatchEnabled() {
+        return drawToMatch;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof RuleSet)) {
+            return false;
+        }
+        RuleSet other = (RuleSet) o;
+        return mask == other.mask && startingCards == other.startingCards;
+    }
+
+    @Override
+    public int hashCode() {
+        return mask * 31 + startingCards;
+    }
+
+    @Override
+    public String toString() {
+        return describe() + " (" + startingCards + " cards)";
+    }
+}
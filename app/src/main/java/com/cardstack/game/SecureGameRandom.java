@@ -0,0 +1,26 @@
+package com.cardstack.game;
+
+import java.security.SecureRandom;
+
+/**
+ * Cryptographically secure randomness. The app seeds each game's SplitMixGameRandom from
+ * it; GameEngine and Deck still fall back to it when given no random.
+ */
+public class SecureGameRandom implements GameRandom {
+    private final SecureRandom random = new SecureRandom();
+
+    @Override
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    @Override
+    public long nextLong() {
+        return random.nextLong();
+    }
+
+    @Override
+    public GameRandom split() {
+        return new SecureGameRandom();
+    }
+}
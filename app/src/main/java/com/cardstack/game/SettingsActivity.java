@@ -23,6 +23,7 @@ public class SettingsActivity extends AppCompatActivity {
     private Switch forcePlaySwitch;
     private Switch challengeDrawFourSwitch;
     private Switch drawToMatchSwitch;
+    private Switch smartAISwitch;
     private Button resetButton;
     private Button saveButton;
     private Button checkUpdateButton;
@@ -56,6 +57,7 @@ public class SettingsActivity extends AppCompatActivity {
         forcePlaySwitch = findViewById(R.id.forcePlaySwitch);
         challengeDrawFourSwitch = findViewById(R.id.challengeDrawFourSwitch);
         drawToMatchSwitch = findViewById(R.id.drawToMatchSwitch);
+        smartAISwitch = findViewById(R.id.smartAISwitch);
         resetButton = findViewById(R.id.resetButton);
         saveButton = findViewById(R.id.saveButton);
         checkUpdateButton = findViewById(R.id.checkUpdateButton);
@@ -74,6 +76,7 @@ public class SettingsActivity extends AppCompatActivity {
         forcePlaySwitch.setChecked(settings.isForcePlayEnabled());
         challengeDrawFourSwitch.setChecked(settings.isChallengeDrawFourEnabled());
         drawToMatchSwitch.setChecked(settings.isDrawToMatchEnabled());
+        smartAISwitch.setChecked(settings.isSmartAIEnabled());
     }
     
     private void setupListeners() {
@@ -121,6 +124,7 @@ public class SettingsActivity extends AppCompatActivity {
         settings.setForcePlayEnabled(forcePlaySwitch.isChecked());
         settings.setChallengeDrawFourEnabled(challengeDrawFourSwitch.isChecked());
         settings.setDrawToMatchEnabled(drawToMatchSwitch.isChecked());
+        settings.setSmartAIEnabled(smartAISwitch.isChecked());
     }
     
     @Override
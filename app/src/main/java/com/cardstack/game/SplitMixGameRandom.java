@@ -0,0 +1,34 @@
+package com.cardstack.game;
+
+import java.util.SplittableRandom;
+
+/**
+ * Fast, seedable SplitMix64 generator for simulations and replays.
+ * Not thread safe: give each thread or game its own stream via split().
+ */
+public class SplitMixGameRandom implements GameRandom {
+    private final SplittableRandom random;
+
+    public SplitMixGameRandom(long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    private SplitMixGameRandom(SplittableRandom random) {
+        this.random = random;
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    @Override
+    public long nextLong() {
+        return random.nextLong();
+    }
+
+    @Override
+    public GameRandom split() {
+        return new SplitMixGameRandom(random.split());
+    }
+}
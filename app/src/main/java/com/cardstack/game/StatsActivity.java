@@ -64,6 +64,9 @@ public class StatsActivity extends AppCompatActivity {
         
         // Recent matches
         displayRecentMatches();
+        
+        // Breakdowns come from SQLite, so load them off the main thread
+        loadBreakdowns();
     }
     
     private void displayRecentMatches() {
@@ -95,6 +98,79 @@ public class StatsActivity extends AppCompatActivity {
         }
     }
     
+    private void loadBreakdowns() {
+        StatsDatabase database = stats.getDatabase();
+        database.execute(() -> {
+            List<StatsDatabase.WinRate> byRules = database.winRateByRuleMask();
+            List<StatsDatabase.WinRate> byOpponent = database.winRateByOpponent(5);
+            List<StatsDatabase.WinRate> byWeek = database.winRateByWeek(4);
+            runOnUiThread(() -> {
+                if (!isFinishing() && !isDestroyed()) {
+                    displayBreakdowns(byRules, byOpponent, byWeek);
+                }
+            });
+        });
+    }
+    
+    private void displayBreakdowns(List<StatsDatabase.WinRate> byRules,
+                                   List<StatsDatabase.WinRate> byOpponent,
+                                   List<StatsDatabase.WinRate> byWeek) {
+        LinearLayout breakdownLayout = findViewById(R.id.breakdownLayout);
+        breakdownLayout.removeAllViews();
+        
+        if (byRules.isEmpty()) {
+            addBreakdownRow(breakdownLayout, "No games played yet!", 0xFF999999);
+            return;
+        }
+        
+        addBreakdownRow(breakdownLayout, "By rule set", 0xFFCCCCCC);
+        for (StatsDatabase.WinRate row : byRules) {
+            addWinRateRow(breakdownLayout, describeRules(Integer.parseInt(row.key)), row);
+        }
+        
+        addBreakdownRow(breakdownLayout, "By opponent", 0xFFCCCCCC);
+        for (StatsDatabase.WinRate row : byOpponent) {
+            addWinRateRow(breakdownLayout, row.key, row);
+        }
+        
+        addBreakdownRow(breakdownLayout, "By week", 0xFFCCCCCC);
+        for (StatsDatabase.WinRate row : byWeek) {
+            addWinRateRow(breakdownLayout, row.key, row);
+        }
+    }
+    
+    private void addWinRateRow(LinearLayout layout, String label, StatsDatabase.WinRate row) {
+        addBreakdownRow(layout, String.format(Locale.US, "  %s - %.1f%% (%d/%d)",
+                label, row.getPercent(), row.wins, row.games), 0xFFFFFFFF);
+    }
+    
+    private void addBreakdownRow(LinearLayout layout, String text, int color) {
+        TextView rowView = new TextView(this);
+        rowView.setText(text);
+        rowView.setTextColor(color);
+        rowView.setTextSize(14);
+        rowView.setPadding(0, 4, 0, 4);
+        layout.addView(rowView);
+    }
+    
+    // Short label for a GameRules bit mask, e.g. "Stacking, Seven-Zero"
+    private String describeRules(int mask) {
+        String[] names = {
+            "Stacking", "Draw on No Play", "Jump-In", "Seven-Zero",
+            "Progressive Draw", "Force Play", "Challenge +4", "Draw to Match"
+        };
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < GameRules.RULE_COUNT; i++) {
+            if ((mask & (1 << i)) != 0) {
+                if (sb.length() > 0) {
+                    sb.append(", ");
+                }
+                sb.append(names[i]);
+            }
+        }
+        return sb.length() > 0 ? sb.toString() : "Classic";
+    }
+    
     private void setupButtons() {
         Button resetButton = findViewById(R.id.resetStatsButton);
         resetButton.setOnClickListener(v -> showResetConfirmation());
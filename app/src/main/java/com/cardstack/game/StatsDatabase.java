@@ -0,0 +1,225 @@
+package com.cardstack.game;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * SQLite store for per-game records, the opponents in each game and every card the
+ * player played, so the Stats screen can break results down by rule set, opponent or
+ * week with indexed GROUP BY queries instead of only showing running totals.
+ *
+ * Query methods block; run them with execute() so they stay off the main thread.
+ */
+public class StatsDatabase extends SQLiteOpenHelper {
+    private static final String DATABASE_NAME = "card_stack_stats.db";
+    private static final int DATABASE_VERSION = 1;
+
+    private static StatsDatabase instance;
+
+    // One thread for every read and write, so games are stored in the order they ended
+    private final ExecutorService io = Executors.newSingleThreadExecutor();
+
+    /**
+     * Everything stored for one finished game.
+     */
+    public static class GameRecord {
+        public long startedAt;
+        public long duration; // Seconds
+        public boolean won;
+        public String winner;
+        public int ruleMask;
+        public int cardsPlayed;
+        public int cardsDrawn;
+        public final List<PlayerProfile> opponents = new ArrayList<>();
+        // Cards the player played, in order, with the time of each play
+        public int[] playedCodes = new int[0];
+        public long[] playedAt = new long[0];
+    }
+
+    /**
+     * Games and wins for one group of a breakdown query.
+     */
+    public static class WinRate {
+        public final String key;
+        public final int games;
+        public final int wins;
+
+        public WinRate(String key, int games, int wins) {
+            this.key = key;
+            this.games = games;
+            this.wins = wins;
+        }
+
+        public double getPercent() {
+            return games == 0 ? 0.0 : wins * 100.0 / games;
+        }
+    }
+
+    public static synchronized StatsDatabase getInstance(Context context) {
+        if (instance == null) {
+            instance = new StatsDatabase(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private StatsDatabase(Context context) {
+        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        super.onConfigure(db);
+        db.setForeignKeyConstraintsEnabled(true);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE games ("
+                + "_id INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + "started_at INTEGER NOT NULL, "
+                + "duration INTEGER NOT NULL, "
+                + "won INTEGER NOT NULL, "
+                + "winner TEXT, "
+                + "rule_mask INTEGER NOT NULL, "
+                + "cards_played INTEGER NOT NULL, "
+                + "cards_drawn INTEGER NOT NULL)");
+        db.execSQL("CREATE TABLE game_opponents ("
+                + "game_id INTEGER NOT NULL REFERENCES games(_id) ON DELETE CASCADE, "
+                + "name TEXT NOT NULL, "
+                + "avatar TEXT)");
+        db.execSQL("CREATE TABLE card_events ("
+                + "game_id INTEGER NOT NULL REFERENCES games(_id) ON DELETE CASCADE, "
+                + "seq INTEGER NOT NULL, "
+                + "card_code INTEGER NOT NULL, "
+                + "played_at INTEGER NOT NULL)");
+
+        // Covering indexes for the breakdown queries below
+        db.execSQL("CREATE INDEX idx_games_started ON games(started_at, won)");
+        db.execSQL("CREATE INDEX idx_games_rules ON games(rule_mask, won)");
+        db.execSQL("CREATE INDEX idx_opponents_name ON game_opponents(name, game_id)");
+        db.execSQL("CREATE INDEX idx_opponents_game ON game_opponents(game_id)");
+        db.execSQL("CREATE INDEX idx_card_events_game ON card_events(game_id, seq)");
+        db.execSQL("CREATE INDEX idx_card_events_code ON card_events(card_code)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // No upgrades yet; version 1 is the first schema
+    }
+
+    /**
+     * Run a database task on the stats thread.
+     */
+    public void execute(Runnable task) {
+        io.execute(task);
+    }
+
+    /**
+     * Store a finished game on the stats thread. The record must not be changed afterwards.
+     */
+    public void recordGameAsync(GameRecord record) {
+        io.execute(() -> insertGame(record));
+    }
+
+    /**
+     * Insert a game with its opponents and card events in a single transaction.
+     */
+    public long insertGame(GameRecord record) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            ContentValues game = new ContentValues();
+            game.put("started_at", record.startedAt);
+            game.put("duration", record.duration);
+            game.put("won", record.won ? 1 : 0);
+            game.put("winner", record.winner);
+            game.put("rule_mask", record.ruleMask);
+            game.put("cards_played", record.cardsPlayed);
+            game.put("cards_drawn", record.cardsDrawn);
+            long gameId = db.insertOrThrow("games", null, game);
+
+            SQLiteStatement opponent = db.compileStatement(
+                    "INSERT INTO game_opponents (game_id, name, avatar) VALUES (?, ?, ?)");
+            for (PlayerProfile profile : record.opponents) {
+                opponent.bindLong(1, gameId);
+                opponent.bindString(2, profile.getName());
+                opponent.bindString(3, profile.getAvatar());
+                opponent.executeInsert();
+            }
+            opponent.close();
+
+            SQLiteStatement event = db.compileStatement(
+                    "INSERT INTO card_events (game_id, seq, card_code, played_at) VALUES (?, ?, ?, ?)");
+            for (int i = 0; i < record.playedCodes.length; i++) {
+                event.bindLong(1, gameId);
+                event.bindLong(2, i);
+                event.bindLong(3, record.playedCodes[i]);
+                event.bindLong(4, record.playedAt[i]);
+                event.executeInsert();
+            }
+            event.close();
+
+            db.setTransactionSuccessful();
+            return gameId;
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    public List<WinRate> winRateByRuleMask() {
+        return queryWinRates(
+                "SELECT rule_mask, COUNT(*), SUM(won) FROM games "
+                + "GROUP BY rule_mask ORDER BY COUNT(*) DESC", null);
+    }
+
+    public List<WinRate> winRateByOpponent(int limit) {
+        return queryWinRates(
+                "SELECT o.name, COUNT(*), SUM(g.won) FROM game_opponents o "
+                + "JOIN games g ON g._id = o.game_id "
+                + "GROUP BY o.name ORDER BY COUNT(*) DESC LIMIT ?",
+                new String[] {String.valueOf(limit)});
+    }
+
+    public List<WinRate> winRateByWeek(int limit) {
+        return queryWinRates(
+                "SELECT strftime('%Y-W%W', started_at / 1000, 'unixepoch', 'localtime') AS week, "
+                + "COUNT(*), SUM(won) FROM games "
+                + "GROUP BY week ORDER BY week DESC LIMIT ?",
+                new String[] {String.valueOf(limit)});
+    }
+
+    private List<WinRate> queryWinRates(String sql, String[] args) {
+        List<WinRate> rows = new ArrayList<>();
+        Cursor cursor = getReadableDatabase().rawQuery(sql, args);
+        try {
+            while (cursor.moveToNext()) {
+                rows.add(new WinRate(cursor.getString(0), cursor.getInt(1), cursor.getInt(2)));
+            }
+        } finally {
+            cursor.close();
+        }
+        return rows;
+    }
+
+    public void clear() {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete("card_events", null, null);
+            db.delete("game_opponents", null, null);
+            db.delete("games", null, null);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+}
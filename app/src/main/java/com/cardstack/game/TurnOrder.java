@@ -0,0 +1,57 @@
+package com.cardstack.game;
+
+/**
+ * Seating of a table as index arrays: the seat after and the seat before each seat are
+ * looked up rather than computed with modular arithmetic, and a Reverse only changes
+ * which of the two arrays is read. Costs the same at two seats or at dozens.
+ */
+public final class TurnOrder {
+    private int[] after = new int[0];
+    private int[] before = new int[0];
+    private int current;
+    private boolean clockwise = true;
+
+    /**
+     * Add a seat after the last one. Seats are numbered in clockwise order from 0.
+     */
+    public void addSeat() {
+        int seats = after.length + 1;
+        after = new int[seats];
+        before = new int[seats];
+        for (int seat = 0; seat < seats; seat++) {
+            after[seat] = seat + 1 < seats ? seat + 1 : 0;
+            before[seat] = seat > 0 ? seat - 1 : seats - 1;
+        }
+    }
+
+    public int size() {
+        return after.length;
+    }
+
+    public int current() {
+        return current;
+    }
+
+    public void setCurrent(int seat) {
+        current = seat;
+    }
+
+    /**
+     * Seat whose turn comes after the given seat in the direction of play.
+     */
+    public int following(int seat) {
+        return clockwise ? after[seat] : before[seat];
+    }
+
+    public void advance() {
+        current = following(current);
+    }
+
+    public void reverse() {
+        clockwise = !clockwise;
+    }
+
+    public boolean isClockwise() {
+        return clockwise;
+    }
+}
@@ -0,0 +1,28 @@
+package com.cardstack.game;
+
+import java.util.List;
+
+/**
+ * Game positions the benchmarks can't reach through the public API. Lives in the
+ * engine's package for GameEngine's package-private deck and discard pile.
+ */
+public final class EngineFixtures {
+    private EngineFixtures() {
+    }
+
+    /**
+     * Deal count cards from the deck straight onto the discard pile, under the top
+     * card, as if they had been played earlier. No rules run and nobody's hand changes.
+     */
+    public static void discardFromDeck(GameEngine engine, int count) {
+        Deck deck = engine.getDeck();
+        List<Card> discardPile = engine.getDiscardPile();
+        for (int i = 0; i < count; i++) {
+            Card card = deck.draw();
+            if (card == null) {
+                throw new IllegalStateException("Deck ran out after " + i + " of " + count + " cards");
+            }
+            discardPile.add(discardPile.size() - 1, card);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.cardstack.game.benchmark;
+
+import com.cardstack.game.Card;
+import com.cardstack.game.Deck;
+import com.cardstack.game.GameEngine;
+import com.cardstack.game.Player;
+import com.cardstack.game.RuleSet;
+import com.cardstack.game.SplitMixGameRandom;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared fixtures for the engine benchmarks.
+ */
+final class BenchmarkSupport {
+    // Fixed seed so every run benchmarks the same deals
+    static final long SEED = 42;
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Cards from freshly shuffled decks, enough to cover count cards.
+     */
+    static List<Card> shuffledCards(int count) {
+        List<Card> cards = new ArrayList<>(count);
+        SplitMixGameRandom random = new SplitMixGameRandom(SEED);
+        while (cards.size() < count) {
+            Deck deck = new Deck(random.split());
+            Card card;
+            while (cards.size() < count && (card = deck.draw()) != null) {
+                cards.add(card);
+            }
+        }
+        return cards;
+    }
+
+    /**
+     * Started game with AI players only, using the given GameRules bit mask.
+     */
+    static GameEngine newGame(int rulesMask, int playerCount) {
+        return newGame(rulesMask, playerCount, SEED);
+    }
+
+    /**
+     * Started game as above, dealt from the given seed.
+     */
+    static GameEngine newGame(int rulesMask, int playerCount, long seed) {
+        GameEngine engine = new GameEngine(RuleSet.fromMask(rulesMask, 7), new SplitMixGameRandom(seed));
+        for (int i = 0; i < playerCount; i++) {
+            engine.addPlayer(new Player("AI " + (i + 1), true));
+        }
+        engine.startGame();
+        return engine;
+    }
+}
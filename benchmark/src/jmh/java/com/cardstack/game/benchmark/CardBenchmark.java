@@ -0,0 +1,48 @@
+package com.cardstack.game.benchmark;
+
+import com.cardstack.game.Card;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * Card.canPlayOn over every card of a deck against a rotating set of top cards.
+ */
+@State(Scope.Thread)
+public class CardBenchmark {
+    private static final int TOP_CARDS = 16;
+    private static final int DECK_SIZE = 108;
+
+    @Param({"true", "false"})
+    public boolean actionStacking;
+
+    private Card[] cards;
+    private Card[] topCards;
+    private int round;
+
+    @Setup
+    public void setup() {
+        List<Card> deck = BenchmarkSupport.shuffledCards(DECK_SIZE);
+        cards = deck.toArray(new Card[0]);
+        topCards = BenchmarkSupport.shuffledCards(TOP_CARDS).toArray(new Card[0]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DECK_SIZE)
+    public int canPlayOn() {
+        Card top = topCards[round++ & (TOP_CARDS - 1)];
+        int playable = 0;
+        for (Card card : cards) {
+            if (card.canPlayOn(top, actionStacking)) {
+                playable++;
+            }
+        }
+        return playable;
+    }
+}
@@ -0,0 +1,152 @@
+package com.cardstack.game.benchmark;
+
+import com.cardstack.game.Card;
+import com.cardstack.game.Deck;
+import com.cardstack.game.EngineFixtures;
+import com.cardstack.game.GameEngine;
+import com.cardstack.game.GameRandom;
+import com.cardstack.game.Player;
+import com.cardstack.game.SecureGameRandom;
+import com.cardstack.game.SplitMixGameRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Deck shuffling plus GameEngine.drawCards, both from a stocked deck and when it
+ * has to reshuffle the discard pile. The discard-transfer benchmarks go up to
+ * multi-deck pile sizes and include the old list-insert approach for comparison.
+ */
+public class DeckBenchmark {
+    @State(Scope.Thread)
+    public static class ShuffleState {
+        // secure: SecureRandom-backed shuffling, splitmix: what games and simulations deal from
+        @Param({"secure", "splitmix"})
+        public String random;
+
+        Deck deck;
+
+        @Setup
+        public void setup() {
+            deck = new Deck(newRandom(random));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class DrawState {
+        @Param({"1", "2", "4", "8"})
+        public int count;
+
+        GameEngine engine;
+        Player player;
+
+        @Setup(Level.Invocation)
+        public void setup() {
+            engine = BenchmarkSupport.newGame(0, 4);
+            player = engine.getPlayers().get(0);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ReshuffleState {
+        @Param({"10", "50", "80"})
+        public int discardSize;
+
+        GameEngine engine;
+        Player player;
+
+        @Setup(Level.Invocation)
+        public void setup() {
+            engine = BenchmarkSupport.newGame(0, 2);
+            player = engine.getPlayers().get(0);
+
+            // Move cards from the deck to the discard pile, then hand out the rest,
+            // so the next draw has to reshuffle a pile of exactly discardSize cards
+            EngineFixtures.discardFromDeck(engine, discardSize);
+            engine.drawCards(engine.getPlayers().get(1), engine.getDeckSize());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class DiscardState {
+        @Param({"107", "1079", "10799"})
+        public int discardSize;
+
+        List<Card> discardPile;
+        Deck deck;
+        GameRandom listRandom;
+
+        @Setup(Level.Trial)
+        public void createPile() {
+            discardPile = BenchmarkSupport.shuffledCards(discardSize);
+        }
+
+        @Param({"secure", "splitmix"})
+        public String random;
+
+        @Setup(Level.Invocation)
+        public void emptyDeck() {
+            deck = new Deck(newRandom(random));
+            while (deck.draw() != null) {
+                // Reshuffles only happen once the deck has run out
+            }
+            // The list baseline shuffles from a fresh copy of the deck's stream
+            listRandom = newRandom(random);
+        }
+    }
+
+    static GameRandom newRandom(String kind) {
+        return "secure".equals(kind) ? new SecureGameRandom() : new SplitMixGameRandom(BenchmarkSupport.SEED);
+    }
+
+    @Benchmark
+    public int reshuffleDiscardPile(DiscardState state) {
+        state.deck.addToBottom(state.discardPile, state.discardSize);
+        state.deck.shuffleBottom(state.discardSize);
+        return state.deck.size();
+    }
+
+    /**
+     * What GameEngine.reshuffleDeck used to do: insert every card at index 0 of an
+     * ArrayList, then shuffle the whole list. Kept as the baseline for the above,
+     * drawing from the same kind of random as the deck.
+     */
+    @Benchmark
+    public int reshuffleDiscardPileListInsert(DiscardState state) {
+        List<Card> cards = new ArrayList<>();
+        for (int i = 0; i < state.discardSize; i++) {
+            cards.add(0, state.discardPile.get(i));
+        }
+        GameRandom random = state.listRandom;
+        for (int i = cards.size() - 1; i > 0; i--) {
+            Collections.swap(cards, i, random.nextInt(i + 1));
+        }
+        return cards.size();
+    }
+
+    @Benchmark
+    public Deck shuffle(ShuffleState state) {
+        state.deck.shuffle();
+        return state.deck;
+    }
+
+    @Benchmark
+    public int drawCards(DrawState state) {
+        state.engine.drawCards(state.player, state.count);
+        return state.player.getCardCount();
+    }
+
+    @Benchmark
+    public int drawWithReshuffle(ReshuffleState state) {
+        state.engine.drawCards(state.player, 1);
+        return state.engine.getDeckSize();
+    }
+}
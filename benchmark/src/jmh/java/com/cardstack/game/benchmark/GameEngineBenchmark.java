@@ -0,0 +1,116 @@
+package com.cardstack.game.benchmark;
+
+import com.cardstack.game.Card;
+import com.cardstack.game.GameEngine;
+import com.cardstack.game.GameRules;
+import com.cardstack.game.HeadlessGame;
+import com.cardstack.game.PlayResult;
+import com.cardstack.game.Player;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * GameEngine.playCard and full AI turns under every rule combination that affects them.
+ */
+public class GameEngineBenchmark {
+    @State(Scope.Thread)
+    public static class Rules {
+        // GameRules masks: every combination of action stacking (1), seven-zero (8),
+        // progressive draw (16) and challenge draw four (64), the rules playCard reads.
+        // Full AI turns also read force play (32) and draw to match (128); pass
+        // -p rules=<mask> to run playTurn with those enabled. playTurn always adds
+        // draw on no play (2).
+        @Param({"0", "1", "8", "9", "16", "17", "24", "25", "64", "65", "72", "73", "80", "81", "88", "89"})
+        public int rules;
+    }
+
+    /**
+     * One game kept going forever: before every call the current player is handed a
+     * playable card and never runs out, so each call plays exactly one card.
+     */
+    @State(Scope.Thread)
+    public static class CardState {
+        GameEngine engine;
+        Card card;
+        Card.Color wildColor;
+
+        @Setup(Level.Invocation)
+        public void prepareCard(Rules rules) {
+            if (engine == null) {
+                engine = BenchmarkSupport.newGame(rules.rules, 4);
+            }
+            // Keep the current player from winning and make sure they hold a playable card
+            Player current = engine.getCurrentPlayer();
+            card = null;
+            for (Card c : current.getHand()) {
+                if (engine.canPlayCard(c)) {
+                    card = c;
+                    break;
+                }
+            }
+            if (card == null || current.getCardCount() < 2) {
+                engine.drawCards(current, 2);
+                List<Card> hand = current.getHand();
+                card = engine.canPlayCard(hand.get(hand.size() - 1)) ? hand.get(hand.size() - 1) : null;
+            }
+            wildColor = card != null && card.getColor() != Card.Color.WILD ? card.getColor() : Card.Color.RED;
+        }
+    }
+
+    /**
+     * Real games, untouched between turns. Every iteration starts over from the same
+     * deal. A game that ends mid-iteration is replaced by the next seed's deal inside
+     * the call that ended it, roughly once every 50 turns, as in a simulation.
+     */
+    @State(Scope.Thread)
+    public static class TurnState {
+        // Same cap as the simulator's default, for deals that stall
+        private static final int MAX_TURNS = 2_000;
+
+        int rulesMask;
+        long seed;
+        HeadlessGame game;
+
+        @Setup(Level.Iteration)
+        public void startOver(Rules rules) {
+            // Without draw on no play a player who can't play only passes, and few games end
+            rulesMask = rules.rules | GameRules.RULE_DRAW_ON_NO_PLAY;
+            seed = BenchmarkSupport.SEED;
+            deal();
+        }
+
+        void deal() {
+            game = new HeadlessGame(BenchmarkSupport.newGame(rulesMask, 4, seed++));
+        }
+    }
+
+    @Benchmark
+    public PlayResult.Kind playCard(CardState state) {
+        GameEngine engine = state.engine;
+        if (state.card == null) {
+            engine.nextPlayer();
+            return null;
+        }
+        PlayResult result = engine.playCard(state.card, state.wildColor);
+        if (result.isSevenZero()) {
+            engine.nextPlayer();
+        }
+        return result.getKind();
+    }
+
+    @Benchmark
+    public boolean playTurn(TurnState state) {
+        boolean finished = state.game.playTurn();
+        if (finished || state.game.getTurns() >= TurnState.MAX_TURNS) {
+            state.deal();
+        }
+        return finished;
+    }
+}
@@ -0,0 +1,80 @@
+package com.cardstack.game.benchmark;
+
+import com.cardstack.game.Card;
+import com.cardstack.game.GameEngine;
+import com.cardstack.game.GameState;
+import com.cardstack.game.HeadlessGame;
+import com.cardstack.game.Move;
+import com.cardstack.game.SplitMixGameRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copies per second of a mid-game position, with and without resampling the hidden
+ * cards, plus one apply/undo round trip.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class GameStateBenchmark {
+    @Param({"2", "4", "8"})
+    public int players;
+
+    private GameState source;
+    private GameState target;
+    private SplitMixGameRandom sampler;
+    private int move;
+
+    @Setup
+    public void setup() {
+        GameEngine engine = BenchmarkSupport.newGame(0, players);
+        // A few rounds in, so the discard pile and hands are not the opening deal
+        HeadlessGame game = new HeadlessGame(engine);
+        for (int i = 0; i < 3 * players && !game.isFinished(); i++) {
+            game.playTurn();
+        }
+
+        sampler = new SplitMixGameRandom(BenchmarkSupport.SEED);
+        source = GameState.capture(engine, sampler.split());
+        target = source.copy();
+
+        long playable = source.getPlayableMask(source.getCurrentPlayer());
+        if (playable == 0) {
+            move = Move.draw();
+        } else {
+            int code = Long.numberOfTrailingZeros(playable);
+            // Wilds sit on the hand's WILD-colored bits; play them as red
+            move = Move.play(Card.isWild(code) ? Card.symbolOf(code) : code);
+        }
+    }
+
+    @Benchmark
+    public GameState copyFrom() {
+        target.copyFrom(source);
+        return target;
+    }
+
+    @Benchmark
+    public GameState copyAndDeterminize() {
+        target.copyFrom(source);
+        target.determinize(source.getCurrentPlayer(), sampler);
+        return target;
+    }
+
+    @Benchmark
+    public int applyUndo() {
+        source.apply(move);
+        int current = source.getCurrentPlayer();
+        source.undo();
+        return current;
+    }
+}
@@ -0,0 +1,47 @@
+package com.cardstack.game.benchmark;
+
+import com.cardstack.game.Card;
+import com.cardstack.game.Player;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * AI card choice for hand sizes from a single card up to Draw-to-Match sized hands.
+ */
+@State(Scope.Thread)
+public class PlayerBenchmark {
+    private static final int TOP_CARDS = 16;
+
+    @Param({"1", "7", "15", "30", "60", "100"})
+    public int handSize;
+
+    @Param({"true", "false"})
+    public boolean actionStacking;
+
+    private Player player;
+    private Card[] topCards;
+    private int round;
+
+    @Setup
+    public void setup() {
+        player = new Player("AI", true);
+        for (Card card : BenchmarkSupport.shuffledCards(handSize)) {
+            player.addCard(card);
+        }
+        topCards = BenchmarkSupport.shuffledCards(TOP_CARDS).toArray(new Card[0]);
+    }
+
+    @Benchmark
+    public Card chooseCardToPlay() {
+        return player.chooseCardToPlay(topCards[round++ & (TOP_CARDS - 1)], actionStacking);
+    }
+
+    @Benchmark
+    public Card.Color chooseWildColor() {
+        return player.chooseWildColor();
+    }
+}
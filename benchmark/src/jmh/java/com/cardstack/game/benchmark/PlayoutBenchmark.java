@@ -0,0 +1,60 @@
+package com.cardstack.game.benchmark;
+
+import com.cardstack.game.GameRandom;
+import com.cardstack.game.GameState;
+import com.cardstack.game.MoveGenerator;
+import com.cardstack.game.SplitMixGameRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Random-playout throughput, the inner loop of Monte Carlo search: copy the opening
+ * position, re-deal the hidden cards, then play uniformly random legal moves until
+ * someone wins. Every move generation and draw goes through the playability checks.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PlayoutBenchmark {
+    private static final int MAX_TURNS = 500;
+
+    // Defaults, action stacking off, and draw to match plus jump-in
+    @Param({"3", "2", "134"})
+    public int rules;
+
+    @Param({"4"})
+    public int players;
+
+    private GameState root;
+    private GameState sample;
+    private GameRandom random; // The sample's own stream, shared by re-deals and move picks
+    private int[] moves;
+
+    @Setup
+    public void setup() {
+        root = GameState.capture(BenchmarkSupport.newGame(rules, players), new SplitMixGameRandom(BenchmarkSupport.SEED));
+        sample = root.copy();
+        random = sample.getRandom();
+        moves = new int[MoveGenerator.bufferSize(players)];
+    }
+
+    @Benchmark
+    public int randomPlayout() {
+        sample.copyFrom(root);
+        sample.determinize(root.getCurrentPlayer(), random);
+        for (int turn = 0; turn < MAX_TURNS && !sample.isFinished(); turn++) {
+            int count = MoveGenerator.generate(sample, moves);
+            sample.apply(moves[random.nextInt(count)]);
+        }
+        return sample.getWinner();
+    }
+}
@@ -0,0 +1,68 @@
+package com.cardstack.game.benchmark;
+
+import com.cardstack.game.DeckFactory;
+import com.cardstack.game.GameEngine;
+import com.cardstack.game.HeadlessGame;
+import com.cardstack.game.Player;
+import com.cardstack.game.RuleSet;
+import com.cardstack.game.SplitMixGameRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Table size scaling: turn changes, Seven-Zero hand rotation, and whole AI games from a
+ * deal to a winner, from two players up to a 64-seat tournament table dealt from as many
+ * decks as DeckFactory picks for it.
+ */
+@State(Scope.Thread)
+public class TableBenchmark {
+    // Defaults plus Seven-Zero, so full games rotate and swap hands
+    private static final int RULES = RuleSet.DEFAULT_MASK | RuleSet.RULE_SEVEN_ZERO;
+    private static final int MAX_TURNS = 5_000;
+
+    @Param({"2", "4", "16", "64"})
+    public int players;
+
+    private GameEngine engine;
+    private SplitMixGameRandom seeds;
+
+    @Setup
+    public void setup() {
+        engine = newTable(BenchmarkSupport.SEED);
+        seeds = new SplitMixGameRandom(BenchmarkSupport.SEED);
+    }
+
+    private GameEngine newTable(long seed) {
+        RuleSet rules = RuleSet.fromMask(RULES, RuleSet.DEFAULT_STARTING_CARDS);
+        int decks = DeckFactory.decksFor(players, rules.getStartingCards());
+        GameEngine table = new GameEngine(rules, new SplitMixGameRandom(seed), decks);
+        for (int i = 0; i < players; i++) {
+            table.addPlayer(new Player("AI " + (i + 1), true));
+        }
+        table.startGame();
+        return table;
+    }
+
+    @Benchmark
+    public int nextPlayer() {
+        engine.nextPlayer();
+        return engine.getCurrentPlayerIndex();
+    }
+
+    @Benchmark
+    public int rotateAllHands() {
+        engine.rotateAllHands();
+        return engine.getPlayers().get(0).getCardCount();
+    }
+
+    @Benchmark
+    public int playGame() {
+        HeadlessGame game = new HeadlessGame(newTable(seeds.nextLong()));
+        game.play(MAX_TURNS);
+        return game.getTurns();
+    }
+}
@@ -0,0 +1,105 @@
+package com.cardstack.game;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertSame;
+
+/**
+ * HandTable swaps and rotations against the list-based ones GameEngine used before:
+ * a swap exchanges two players' hands, and a rotation gives every player the hand of
+ * the next player (i + 1) clockwise or of the previous one (i - 1) counter-clockwise.
+ */
+public class HandTableTest {
+    @Test
+    public void rotateClockwiseTakesTheNextSeatsHand() {
+        List<Hand> hands = newHands(4);
+        HandTable table = newTable(hands);
+        table.rotate(TurnOrderTest.newOrder(4));
+
+        assertSame(hands.get(1), table.get(0));
+        assertSame(hands.get(2), table.get(1));
+        assertSame(hands.get(3), table.get(2));
+        assertSame(hands.get(0), table.get(3));
+    }
+
+    @Test
+    public void rotateCounterClockwiseTakesThePreviousSeatsHand() {
+        List<Hand> hands = newHands(4);
+        HandTable table = newTable(hands);
+        TurnOrder order = TurnOrderTest.newOrder(4);
+        order.reverse();
+        table.rotate(order);
+
+        assertSame(hands.get(3), table.get(0));
+        assertSame(hands.get(0), table.get(1));
+        assertSame(hands.get(1), table.get(2));
+        assertSame(hands.get(2), table.get(3));
+    }
+
+    @Test
+    public void rotateLeavesASingleSeatAlone() {
+        List<Hand> hands = newHands(1);
+        HandTable table = newTable(hands);
+        table.rotate(TurnOrderTest.newOrder(1));
+
+        assertSame(hands.get(0), table.get(0));
+    }
+
+    @Test
+    public void randomSwapsAndRotationsMatchListSemantics() {
+        Random random = new Random(22);
+        for (int seats = 2; seats <= 40; seats++) {
+            List<Hand> reference = newHands(seats);
+            HandTable table = newTable(reference); // Grows past its initial capacity from 5 seats
+            TurnOrder order = TurnOrderTest.newOrder(seats);
+            for (int step = 0; step < 300; step++) {
+                switch (random.nextInt(3)) {
+                    case 0:
+                        order.reverse();
+                        break;
+                    case 1: {
+                        int seat = random.nextInt(seats);
+                        int other = random.nextInt(seats);
+                        table.swap(seat, other);
+                        Collections.swap(reference, seat, other);
+                        break;
+                    }
+                    default: {
+                        table.rotate(order);
+                        List<Hand> before = new ArrayList<>(reference);
+                        for (int i = 0; i < seats; i++) {
+                            int from = order.isClockwise() ? (i + 1) % seats : (i - 1 + seats) % seats;
+                            reference.set(i, before.get(from));
+                        }
+                        break;
+                    }
+                }
+                for (int seat = 0; seat < seats; seat++) {
+                    assertSame("seats=" + seats + " step=" + step + " seat=" + seat,
+                            reference.get(seat), table.get(seat));
+                }
+            }
+        }
+    }
+
+    private static List<Hand> newHands(int count) {
+        List<Hand> hands = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            hands.add(new Hand());
+        }
+        return hands;
+    }
+
+    private static HandTable newTable(List<Hand> hands) {
+        HandTable table = new HandTable();
+        for (Hand hand : hands) {
+            table.add(hand);
+        }
+        return table;
+    }
+}
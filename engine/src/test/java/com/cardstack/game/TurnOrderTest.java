@@ -0,0 +1,84 @@
+package com.cardstack.game;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * TurnOrder against the index arithmetic GameEngine used before it: the next seat is
+ * (i + 1) % n clockwise and (i - 1 + n) % n counter-clockwise.
+ */
+public class TurnOrderTest {
+    @Test
+    public void advancesClockwiseFromSeatZero() {
+        TurnOrder order = newOrder(4);
+        int[] expected = {1, 2, 3, 0, 1};
+        for (int seat : expected) {
+            order.advance();
+            assertEquals(seat, order.current());
+        }
+    }
+
+    @Test
+    public void reverseAdvancesCounterClockwise() {
+        TurnOrder order = newOrder(4);
+        order.reverse();
+        int[] expected = {3, 2, 1, 0, 3};
+        for (int seat : expected) {
+            order.advance();
+            assertEquals(seat, order.current());
+        }
+    }
+
+    @Test
+    public void followingMatchesModularArithmeticInBothDirections() {
+        for (int seats = 1; seats <= 64; seats++) {
+            TurnOrder order = newOrder(seats);
+            for (int seat = 0; seat < seats; seat++) {
+                assertEquals((seat + 1) % seats, order.following(seat));
+            }
+            order.reverse();
+            for (int seat = 0; seat < seats; seat++) {
+                assertEquals((seat - 1 + seats) % seats, order.following(seat));
+            }
+        }
+    }
+
+    @Test
+    public void randomTurnsMatchListSemantics() {
+        Random random = new Random(22);
+        for (int seats = 2; seats <= 12; seats++) {
+            TurnOrder order = newOrder(seats);
+            int current = 0;
+            boolean clockwise = true;
+            for (int step = 0; step < 500; step++) {
+                switch (random.nextInt(3)) {
+                    case 0:
+                        order.reverse();
+                        clockwise = !clockwise;
+                        break;
+                    case 1:
+                        current = random.nextInt(seats);
+                        order.setCurrent(current);
+                        break;
+                    default:
+                        order.advance();
+                        current = clockwise ? (current + 1) % seats : (current - 1 + seats) % seats;
+                        break;
+                }
+                assertEquals(current, order.current());
+                assertEquals(clockwise, order.isClockwise());
+            }
+        }
+    }
+
+    static TurnOrder newOrder(int seats) {
+        TurnOrder order = new TurnOrder();
+        for (int i = 0; i < seats; i++) {
+            order.addSeat();
+        }
+        return order;
+    }
+}
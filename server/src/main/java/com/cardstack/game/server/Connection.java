@@ -0,0 +1,88 @@
+package com.cardstack.game.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+
+/**
+ * One client socket: a read buffer that collects whole frames, a queue of frames still
+ * to be written, and the table seat the client plays. Reading and seating happen on the
+ * event loop thread; frames are sent from the table thread, so sending and flushing
+ * share the connection's lock.
+ */
+final class Connection {
+    // A client this far behind on reading is dropped rather than buffered without limit
+    private static final int MAX_QUEUED_BYTES = 1 << 20;
+
+    final SocketChannel channel;
+    final SelectionKey key;
+    final ByteBuffer in = ByteBuffer.allocate(Protocol.HEADER_SIZE + Protocol.MAX_FRAME);
+    private final ArrayDeque<ByteBuffer> out = new ArrayDeque<>();
+    private int queuedBytes;
+    private boolean failed;
+
+    // Event loop thread only
+    Table table;
+    int seat = -1;
+
+    Connection(SocketChannel channel, SelectionKey key) {
+        this.channel = channel;
+        this.key = key;
+    }
+
+    /**
+     * Write the frame now if the socket takes it, otherwise queue the rest for OP_WRITE.
+     * A connection that falls too far behind is failed; the loop closes it on its next
+     * write or read event.
+     */
+    synchronized void send(ByteBuffer frame) {
+        if (failed) {
+            return;
+        }
+        try {
+            if (out.isEmpty()) {
+                channel.write(frame);
+                if (!frame.hasRemaining()) {
+                    return;
+                }
+                key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                key.selector().wakeup(); // Pick up the new interest set now
+            }
+            out.add(frame);
+            queuedBytes += frame.remaining();
+            if (queuedBytes > MAX_QUEUED_BYTES) {
+                failed = true;
+            }
+        } catch (IOException | CancelledKeyException e) {
+            failed = true; // Includes a connection the event loop already closed
+        }
+    }
+
+    /**
+     * Write queued frames; called when the socket is writable. Throws once the connection
+     * has failed, so the event loop closes it.
+     */
+    synchronized void flush() throws IOException {
+        if (failed) {
+            throw new IOException("Client stopped reading");
+        }
+        while (!out.isEmpty()) {
+            ByteBuffer frame = out.peek();
+            int before = frame.remaining();
+            channel.write(frame);
+            queuedBytes -= before - frame.remaining();
+            if (frame.hasRemaining()) {
+                return;
+            }
+            out.poll();
+        }
+        key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+    }
+
+    synchronized boolean isFailed() {
+        return failed;
+    }
+}
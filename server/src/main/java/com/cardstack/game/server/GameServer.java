@@ -0,0 +1,320 @@
+package com.cardstack.game.server;
+
+import com.cardstack.game.GameRules;
+import com.cardstack.game.RuleSet;
+import com.cardstack.game.SplitMixGameRandom;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Authoritative multiplayer host for local games. One NIO selector thread accepts
+ * clients, reads their frames (see Protocol) and hands each move to the TableRunner of
+ * the Table the client sits at; that table's own thread applies it, plays the bots and
+ * sends every seat what changed in its view. Tables need no locking because only their
+ * thread touches them, and a table waiting on a human only costs a parked thread, so
+ * one JVM hosts tens of thousands of them.
+ *
+ * Clients asking for the same rules, table size and number of humans are seated
+ * together; a table starts when its last human joins, with bots in the other seats.
+ * A human who does not answer within the turn timeout has a bot move for them. Any
+ * client may instead watch a table by id, seeing only its public state.
+ *
+ * Usage: GameServer [--port N] [--turn-timeout MS]
+ */
+public class GameServer implements AutoCloseable {
+    public static final int DEFAULT_PORT = 7420;
+    public static final int MAX_SEATS = 64;
+    public static final long DEFAULT_TURN_TIMEOUT_MS = 30_000;
+
+    private static final int ALL_RULES = (1 << GameRules.RULE_COUNT) - 1;
+
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final SplitMixGameRandom seeds = new SplitMixGameRandom(System.nanoTime());
+    // Tables still waiting for humans, by rules, seats and human seats
+    private final Map<Long, Table> lobby = new HashMap<>();
+    private final Map<Integer, TableRunner> runners = new HashMap<>(); // By table id
+    private final long turnTimeoutMillis;
+    private final List<Connection> broken = new ArrayList<>();
+    private int nextTableId = 1;
+    private volatile int tableCount;
+    private Thread thread;
+
+    public GameServer(int port) throws IOException {
+        this(port, DEFAULT_TURN_TIMEOUT_MS);
+    }
+
+    /**
+     * Bind to the port on all interfaces; port 0 picks a free one (see getPort()).
+     */
+    public GameServer(int port, long turnTimeoutMillis) throws IOException {
+        this.turnTimeoutMillis = turnTimeoutMillis;
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port), 256);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        long turnTimeout = DEFAULT_TURN_TIMEOUT_MS;
+        for (int i = 0; i < args.length; i++) {
+            if ("--port".equals(args[i])) {
+                port = Integer.parseInt(args[++i]);
+            } else if ("--turn-timeout".equals(args[i])) {
+                turnTimeout = Long.parseLong(args[++i]);
+            } else {
+                System.err.println("Usage: GameServer [--port N] [--turn-timeout MS]");
+                System.exit(2);
+            }
+        }
+        GameServer server = new GameServer(port, turnTimeout);
+        System.out.println("Listening on port " + server.getPort() + ", tables on "
+                + (TableRunner.isVirtual() ? "virtual" : "platform") + " threads");
+        server.run();
+    }
+
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Tables currently seating at least one client, started or not.
+     */
+    public int getTableCount() {
+        return tableCount;
+    }
+
+    /**
+     * Run the event loop on a daemon thread and return.
+     */
+    public void start() {
+        thread = new Thread(this::run, "game-server");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Run the event loop on the calling thread until close().
+     */
+    public void run() {
+        try {
+            while (selector.isOpen()) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        try {
+                            accept();
+                        } catch (IOException e) {
+                            // Usually out of file descriptors: keep serving the tables we have
+                            System.err.println("Accept failed: " + e.getMessage());
+                        }
+                        continue;
+                    }
+                    Connection connection = (Connection) key.attachment();
+                    try {
+                        if (key.isWritable()) {
+                            connection.flush();
+                        }
+                        if (key.isReadable() && !read(connection)) {
+                            broken.add(connection);
+                        }
+                    } catch (IOException e) {
+                        broken.add(connection);
+                    }
+                }
+                closeBroken();
+            }
+        } catch (ClosedSelectorException e) {
+            // close() was called
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            for (TableRunner runner : runners.values()) {
+                runner.interrupt();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverChannel.close();
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+        if (thread != null) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            key.attach(new Connection(channel, key));
+        }
+    }
+
+    // Returns false once the client has closed its end or sent something unframeable
+    private boolean read(Connection connection) throws IOException {
+        ByteBuffer in = connection.in;
+        if (connection.channel.read(in) < 0) {
+            return false;
+        }
+        in.flip();
+        while (in.remaining() >= Protocol.HEADER_SIZE) {
+            int length = in.getShort(in.position()) & 0xFFFF;
+            if (length == 0 || length > Protocol.MAX_FRAME) {
+                return false;
+            }
+            if (in.remaining() < Protocol.HEADER_SIZE + length) {
+                break;
+            }
+            int end = in.position() + Protocol.HEADER_SIZE + length;
+            in.position(in.position() + Protocol.HEADER_SIZE);
+            int type = in.get() & 0xFF;
+            ByteBuffer payload = in.slice();
+            payload.limit(end - in.position());
+            in.position(end);
+            try {
+                dispatch(connection, type, payload);
+            } catch (RuntimeException e) {
+                // Short payload or similar: the frame was malformed, not the table
+                connection.send(Protocol.rejected(Protocol.BAD_REQUEST));
+            }
+        }
+        in.compact();
+        return !connection.isFailed();
+    }
+
+    private void dispatch(Connection connection, int type, ByteBuffer payload) {
+        Table table = connection.table;
+        boolean seating = type == Protocol.JOIN || type == Protocol.WATCH;
+        if (table != null && seating && (table.isOver() || connection.seat < 0)) {
+            leaveTable(connection); // Next game, or done watching
+            table = null;
+        }
+        if (table == null) {
+            if (type == Protocol.JOIN) {
+                join(connection, payload);
+            } else if (type == Protocol.WATCH) {
+                watch(connection, payload.getInt());
+            } else {
+                connection.send(Protocol.rejected(Protocol.BAD_REQUEST));
+            }
+            return;
+        }
+        // Every move has at most one argument byte; decode it before the buffer is reused
+        int seat = connection.seat;
+        int argument = payload.hasRemaining() ? payload.get() & 0xFF : -1;
+        Table seated = table;
+        runners.get(table.getId()).execute(() -> seated.handle(connection, seat, type, argument));
+    }
+
+    private void join(Connection connection, ByteBuffer payload) {
+        int mask = payload.getInt();
+        int seats = payload.get() & 0xFF;
+        int humans = payload.get() & 0xFF;
+        String name = Protocol.readName(payload);
+        if ((mask & ~ALL_RULES) != 0 || seats < 2 || seats > MAX_SEATS || humans < 1 || humans > seats) {
+            connection.send(Protocol.rejected(Protocol.BAD_REQUEST));
+            return;
+        }
+
+        long lobbyKey = ((long) mask << 16) | (seats << 8) | humans;
+        Table table = lobby.get(lobbyKey);
+        TableRunner runner;
+        if (table == null) {
+            RuleSet rules = RuleSet.fromMask(mask, RuleSet.DEFAULT_STARTING_CARDS);
+            table = new Table(nextTableId++, rules, seats, humans, seeds.nextLong(), turnTimeoutMillis);
+            runner = new TableRunner(table);
+            runners.put(table.getId(), runner);
+            tableCount = runners.size();
+            lobby.put(lobbyKey, table);
+            runner.start();
+        } else {
+            runner = runners.get(table.getId());
+        }
+        int seat = table.reserveSeat();
+        connection.table = table;
+        connection.seat = seat;
+        Table seated = table;
+        runner.execute(() -> seated.join(connection, seat, name));
+        if (table.isFull()) {
+            lobby.remove(lobbyKey);
+        }
+    }
+
+    private void closeBroken() {
+        for (Connection connection : broken) {
+            connection.key.cancel();
+            try {
+                connection.channel.close();
+            } catch (IOException e) {
+                // Already gone
+            }
+            if (connection.table != null) {
+                leaveTable(connection);
+            }
+        }
+        broken.clear();
+    }
+
+    private void watch(Connection connection, int tableId) {
+        TableRunner runner = runners.get(tableId);
+        if (runner == null) {
+            connection.send(Protocol.rejected(Protocol.BAD_REQUEST));
+            return;
+        }
+        Table table = runner.getTable();
+        table.addSpectator();
+        connection.table = table;
+        connection.seat = -1;
+        runner.execute(() -> table.watch(connection));
+    }
+
+    private void leaveTable(Connection connection) {
+        Table table = connection.table;
+        int seat = connection.seat;
+        connection.table = null;
+        TableRunner runner = runners.get(table.getId());
+        if (seat < 0) {
+            runner.execute(() -> table.unwatch(connection));
+        } else {
+            runner.execute(() -> table.leave(seat));
+        }
+        if (table.releaseSeat()) {
+            runner.stop();
+            runners.remove(table.getId());
+            tableCount = runners.size();
+            lobby.values().remove(table);
+        }
+    }
+}
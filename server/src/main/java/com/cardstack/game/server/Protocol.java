@@ -0,0 +1,140 @@
+package com.cardstack.game.server;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Wire format shared by GameServer and its clients (LoopbackClient in the tests speaks it).
+ *
+ * Every frame is a 2-byte length (of everything after it), a 1-byte type, then the
+ * payload, all big-endian. Cards travel as their 1-byte codes, a played wild carrying
+ * its chosen color, so a move is 4 bytes on the wire.
+ *
+ * Client to server:
+ *   JOIN      rules mask (int), seats (byte), human seats (byte), name length (byte), name (UTF-8)
+ *   PLAY      card code (byte)
+ *   DRAW
+ *   SWAP      target seat (byte), answering a seven under the Seven-Zero rule
+ *   CHALLENGE 1 to challenge a Wild Draw Four, 0 to accept it (byte)
+ *   WATCH     table id (int), to follow a table as a spectator
+ *
+ * Server to client:
+ *   JOINED    table id (int), your seat (byte, NO_SEAT for a spectator), seats (byte)
+ *   DELTA     what changed at the table as the receiver sees it, see StateDiffer
+ *   REJECTED  reason (byte)
+ */
+public final class Protocol {
+    public static final int JOIN = 1;
+    public static final int PLAY = 2;
+    public static final int DRAW = 3;
+    public static final int SWAP = 4;
+    public static final int CHALLENGE = 5;
+    public static final int WATCH = 6;
+
+    public static final int JOINED = 16;
+    public static final int DELTA = 17;
+    public static final int REJECTED = 18;
+
+    // REJECTED reasons
+    public static final int NOT_YOUR_TURN = 1;
+    public static final int ILLEGAL_MOVE = 2;
+    public static final int BAD_REQUEST = 3;
+
+    // DELTA sections, in the order they appear in the frame
+    public static final int SECTION_TOP = 1;
+    public static final int SECTION_CURRENT = 1 << 1;
+    public static final int SECTION_FLAGS = 1 << 2;
+    public static final int SECTION_DECK = 1 << 3;
+    public static final int SECTION_STACK = 1 << 4;
+    public static final int SECTION_WINNER = 1 << 5;
+    public static final int SECTION_COUNTS = 1 << 6;
+    public static final int SECTION_HAND = 1 << 7;
+    public static final int SECTION_HAND_DIFF = 1 << 8;
+    public static final int SECTION_PLAYABLE = 1 << 9;
+
+    // Flags in the FLAGS section
+    public static final int FLAG_CLOCKWISE = 1;
+    public static final int FLAG_CHOOSE_SWAP = 2;      // Receiver must answer with SWAP
+    public static final int FLAG_CHOOSE_CHALLENGE = 4; // Receiver must answer with CHALLENGE
+    public static final int FLAG_GAME_OVER = 8;
+
+    public static final int NO_WINNER = 0xFF;
+    public static final int NO_SEAT = 0xFF;
+
+    static final int HEADER_SIZE = 2;
+    // Largest frame either side accepts; a full DELTA for the largest hands stays well below
+    static final int MAX_FRAME = 16 * 1024;
+
+    private Protocol() {
+    }
+
+    /**
+     * Buffer for one frame with room for payloadSize bytes, header and type already written.
+     * Callers put the payload and flip it.
+     */
+    public static ByteBuffer frame(int type, int payloadSize) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + 1 + payloadSize);
+        buffer.putShort((short) (1 + payloadSize));
+        buffer.put((byte) type);
+        return buffer;
+    }
+
+    public static ByteBuffer join(int rulesMask, int seats, int humanSeats, String name) {
+        byte[] utf8 = name.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(utf8.length, 255);
+        ByteBuffer buffer = frame(JOIN, 4 + 1 + 1 + 1 + length);
+        buffer.putInt(rulesMask).put((byte) seats).put((byte) humanSeats).put((byte) length).put(utf8, 0, length);
+        buffer.flip();
+        return buffer;
+    }
+
+    public static ByteBuffer play(int code) {
+        return withByte(PLAY, code);
+    }
+
+    public static ByteBuffer draw() {
+        ByteBuffer buffer = frame(DRAW, 0);
+        buffer.flip();
+        return buffer;
+    }
+
+    public static ByteBuffer swap(int targetSeat) {
+        return withByte(SWAP, targetSeat);
+    }
+
+    public static ByteBuffer challenge(boolean challenge) {
+        return withByte(CHALLENGE, challenge ? 1 : 0);
+    }
+
+    public static ByteBuffer watch(int tableId) {
+        ByteBuffer buffer = frame(WATCH, 4);
+        buffer.putInt(tableId);
+        buffer.flip();
+        return buffer;
+    }
+
+    static ByteBuffer joined(int tableId, int seat, int seats) {
+        ByteBuffer buffer = frame(JOINED, 4 + 1 + 1);
+        buffer.putInt(tableId).put((byte) seat).put((byte) seats);
+        buffer.flip();
+        return buffer;
+    }
+
+    static ByteBuffer rejected(int reason) {
+        return withByte(REJECTED, reason);
+    }
+
+    static String readName(ByteBuffer payload) {
+        int length = payload.get() & 0xFF;
+        byte[] utf8 = new byte[length];
+        payload.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static ByteBuffer withByte(int type, int value) {
+        ByteBuffer buffer = frame(type, 1);
+        buffer.put((byte) value);
+        buffer.flip();
+        return buffer;
+    }
+}
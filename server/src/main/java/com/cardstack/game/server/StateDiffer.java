@@ -0,0 +1,218 @@
+package com.cardstack.game.server;
+
+import com.cardstack.game.Card;
+import com.cardstack.game.GameEngine;
+import com.cardstack.game.Player;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Turns a table into DELTA frames for one viewer: each frame carries only what changed
+ * since the last frame sent to that viewer, so a move costs a few bytes per client
+ * instead of every count and the whole hand. The first frame is the delta from an
+ * empty view and so carries everything.
+ *
+ * A seated viewer sees their own hand; nobody else's hand is ever read, so redaction
+ * is by construction. A spectator (seat -1) sees only what is public: the top card,
+ * turn, flags (direction of play travels as FLAG_CLOCKWISE), piles and card counts.
+ *
+ * DELTA payload: changed sections (short, Protocol.SECTION_* bits), then each changed
+ * section in bit order:
+ *   TOP       top card code, a wild in its chosen color (byte)
+ *   CURRENT   seat whose turn it is (byte)
+ *   FLAGS     Protocol.FLAG_* for this viewer, including the direction of play (byte)
+ *   DECK      draw pile size (short)
+ *   STACK     progressive draw stack (short)
+ *   WINNER    winning seat, or NO_WINNER (byte)
+ *   COUNTS    changed seat count (byte), then per seat: seat (byte), new card count (short)
+ *   HAND      own hand replaced: size (short), codes (byte each)
+ *   HAND_DIFF own hand changed: removed (short) and codes, then added (short) and codes
+ *   PLAYABLE  playable cards of the own hand as a Hand bit mask (long)
+ */
+final class StateDiffer {
+    private static final int UNKNOWN = -1;
+
+    private final int seat;
+
+    // Last view sent; UNKNOWN until the first frame
+    private int top = UNKNOWN;
+    private int current = UNKNOWN;
+    private int flags = UNKNOWN;
+    private int deck = UNKNOWN;
+    private int stack = UNKNOWN;
+    private int winner = UNKNOWN;
+    private int[] counts;
+    private final int[] hand = new int[Card.CODE_LIMIT]; // Copies per code
+    private int handSize = UNKNOWN;
+    private long playable;
+    private boolean playableSent;
+
+    // Scratch for the hand being compared
+    private final int[] handNow = new int[Card.CODE_LIMIT];
+
+    StateDiffer(int seat) {
+        this.seat = seat;
+    }
+
+    /**
+     * DELTA frame bringing the viewer up to date, or null if nothing they can see has
+     * changed. The flags, winner and playable mask are as the table computed them for
+     * this viewer.
+     */
+    ByteBuffer next(GameEngine engine, int viewerFlags, int winnerSeat, long playableMask) {
+        List<Player> players = engine.getPlayers();
+        if (counts == null) {
+            counts = new int[players.size()];
+            Arrays.fill(counts, UNKNOWN);
+        }
+
+        int topNow = engine.getTopCardCode();
+        int currentNow = engine.getCurrentPlayerIndex();
+        int deckNow = engine.getDeckSize();
+        int stackNow = Math.max(0, engine.getProgressiveDrawStack());
+        int sections = 0;
+        int size = 2;
+        if (topNow != top) {
+            sections |= Protocol.SECTION_TOP;
+            size += 1;
+        }
+        if (currentNow != current) {
+            sections |= Protocol.SECTION_CURRENT;
+            size += 1;
+        }
+        if (viewerFlags != flags) {
+            sections |= Protocol.SECTION_FLAGS;
+            size += 1;
+        }
+        if (deckNow != deck) {
+            sections |= Protocol.SECTION_DECK;
+            size += 2;
+        }
+        if (stackNow != stack) {
+            sections |= Protocol.SECTION_STACK;
+            size += 2;
+        }
+        if (winnerSeat != winner) {
+            sections |= Protocol.SECTION_WINNER;
+            size += 1;
+        }
+        int changedCounts = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (players.get(i).getCardCount() != counts[i]) {
+                changedCounts++;
+            }
+        }
+        if (changedCounts > 0) {
+            sections |= Protocol.SECTION_COUNTS;
+            size += 1 + 3 * changedCounts;
+        }
+
+        int removed = 0;
+        int added = 0;
+        Player own = seat >= 0 ? players.get(seat) : null;
+        if (own != null) {
+            for (Card card : own.getHand()) {
+                handNow[card.getCode()]++;
+            }
+            for (int code = 0; code < Card.CODE_LIMIT; code++) {
+                int change = handNow[code] - hand[code];
+                if (change < 0) {
+                    removed -= change;
+                } else {
+                    added += change;
+                }
+            }
+            int ownSize = own.getCardCount();
+            if (handSize == UNKNOWN || removed + added > ownSize) {
+                // A swap or rotation replaces the hand: the full list is shorter
+                sections |= Protocol.SECTION_HAND;
+                size += 2 + ownSize;
+            } else if (removed + added > 0) {
+                sections |= Protocol.SECTION_HAND_DIFF;
+                size += 4 + removed + added;
+            }
+            if (!playableSent || playableMask != playable) {
+                sections |= Protocol.SECTION_PLAYABLE;
+                size += 8;
+            }
+        }
+
+        if (sections == 0) {
+            clear(handNow);
+            return null;
+        }
+        ByteBuffer buffer = Protocol.frame(Protocol.DELTA, size);
+        buffer.putShort((short) sections);
+        if ((sections & Protocol.SECTION_TOP) != 0) {
+            buffer.put((byte) topNow);
+            top = topNow;
+        }
+        if ((sections & Protocol.SECTION_CURRENT) != 0) {
+            buffer.put((byte) currentNow);
+            current = currentNow;
+        }
+        if ((sections & Protocol.SECTION_FLAGS) != 0) {
+            buffer.put((byte) viewerFlags);
+            flags = viewerFlags;
+        }
+        if ((sections & Protocol.SECTION_DECK) != 0) {
+            buffer.putShort((short) deckNow);
+            deck = deckNow;
+        }
+        if ((sections & Protocol.SECTION_STACK) != 0) {
+            buffer.putShort((short) stackNow);
+            stack = stackNow;
+        }
+        if ((sections & Protocol.SECTION_WINNER) != 0) {
+            buffer.put((byte) winnerSeat);
+            winner = winnerSeat;
+        }
+        if ((sections & Protocol.SECTION_COUNTS) != 0) {
+            buffer.put((byte) changedCounts);
+            for (int i = 0; i < counts.length; i++) {
+                int count = players.get(i).getCardCount();
+                if (count != counts[i]) {
+                    buffer.put((byte) i).putShort((short) count);
+                    counts[i] = count;
+                }
+            }
+        }
+        if ((sections & Protocol.SECTION_HAND) != 0) {
+            buffer.putShort((short) own.getCardCount());
+            for (Card card : own.getHand()) {
+                buffer.put((byte) card.getCode());
+            }
+        } else if ((sections & Protocol.SECTION_HAND_DIFF) != 0) {
+            buffer.putShort((short) removed);
+            for (int code = 0; code < Card.CODE_LIMIT; code++) {
+                for (int i = handNow[code]; i < hand[code]; i++) {
+                    buffer.put((byte) code);
+                }
+            }
+            buffer.putShort((short) added);
+            for (int code = 0; code < Card.CODE_LIMIT; code++) {
+                for (int i = hand[code]; i < handNow[code]; i++) {
+                    buffer.put((byte) code);
+                }
+            }
+        }
+        if (own != null) {
+            System.arraycopy(handNow, 0, hand, 0, Card.CODE_LIMIT);
+            handSize = own.getCardCount();
+            clear(handNow);
+        }
+        if ((sections & Protocol.SECTION_PLAYABLE) != 0) {
+            buffer.putLong(playableMask);
+            playable = playableMask;
+            playableSent = true;
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static void clear(int[] values) {
+        Arrays.fill(values, 0);
+    }
+}
@@ -0,0 +1,447 @@
+package com.cardstack.game.server;
+
+import com.cardstack.game.Card;
+import com.cardstack.game.DeckFactory;
+import com.cardstack.game.GameEngine;
+import com.cardstack.game.HeadlessGame;
+import com.cardstack.game.Player;
+import com.cardstack.game.PlayResult;
+import com.cardstack.game.RuleSet;
+import com.cardstack.game.SplitMixGameRandom;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One game hosted by the server: a GameEngine, the connections seated at it, and bots
+ * for the remaining seats. Human moves follow the same rules GameLoop applies to the
+ * player on the device; bot seats are played by HeadlessGame, so a table behaves like
+ * the single-player game with more humans in it. A human who disconnects is replaced
+ * by a bot for the rest of the game, and one who takes longer than the turn timeout
+ * has the move made for them the same way.
+ *
+ * Every seated client and spectator has a StateDiffer, so after each change they are
+ * sent only what changed in their own view.
+ *
+ * The game is only touched on the table's TableRunner thread; the seat counters are
+ * kept by the event loop, which seats clients before the table hears of them.
+ */
+final class Table {
+    // Same safety limit GameLoop uses for Draw to Match
+    private static final int MAX_DRAW_TO_MATCH = 20;
+    // A game still running after this many turns is called off without a winner
+    private static final int MAX_TURNS = 5_000;
+
+    private final int id;
+    private final RuleSet rules;
+    private final long seed;
+    private final int humanSeats;
+    private final long turnTimeoutNanos;
+
+    private final Connection[] connections; // null for a bot seat
+    private final StateDiffer[] views;
+    private final String[] names;
+    private final Map<Connection, StateDiffer> spectators = new LinkedHashMap<>();
+    private int joined;
+    private long deadline = Long.MAX_VALUE; // System.nanoTime() by which the owed move is due
+
+    private GameEngine engine;
+    private HeadlessGame bots;
+    private int turns;
+    private int swapSeat = -1;      // Seat that must pick a Seven-Zero swap target
+    private int challengeSeat = -1; // Seat that may challenge a Wild Draw Four
+    private int challengedSeat;     // Seat that played it
+    private volatile boolean over; // Also read by the event loop
+    private int winner = -1;
+
+    // Event loop thread only
+    private int reservedSeats;
+    private int presentSeats;
+
+    Table(int id, RuleSet rules, int seats, int humanSeats, long seed, long turnTimeoutMillis) {
+        this.id = id;
+        this.rules = rules;
+        this.seed = seed;
+        this.humanSeats = humanSeats;
+        this.turnTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(turnTimeoutMillis);
+        this.connections = new Connection[seats];
+        this.views = new StateDiffer[seats];
+        this.names = new String[seats];
+    }
+
+    int getId() {
+        return id;
+    }
+
+    /**
+     * Event loop thread: claim the next human seat for a joining client.
+     */
+    int reserveSeat() {
+        presentSeats++;
+        return reservedSeats++;
+    }
+
+    /**
+     * Event loop thread: true once every human seat has been claimed.
+     */
+    boolean isFull() {
+        return reservedSeats == humanSeats;
+    }
+
+    /**
+     * Event loop thread: count a spectator, who keeps the table alive like a player.
+     */
+    void addSpectator() {
+        presentSeats++;
+    }
+
+    /**
+     * Event loop thread: a seated client or spectator left. Returns true if it was the
+     * last one.
+     */
+    boolean releaseSeat() {
+        return --presentSeats == 0;
+    }
+
+    boolean isOver() {
+        return over;
+    }
+
+    /**
+     * Seat the connection at its reserved seat, starting the game once every human seat
+     * is taken.
+     */
+    void join(Connection connection, int seat, String name) {
+        joined++;
+        connections[seat] = connection;
+        views[seat] = new StateDiffer(seat);
+        names[seat] = name.isEmpty() ? "Player " + (seat + 1) : name;
+        connection.send(Protocol.joined(id, seat, connections.length));
+        if (joined == humanSeats) {
+            start();
+        }
+    }
+
+    /**
+     * Follow the table as a spectator: public state only, from now on.
+     */
+    void watch(Connection connection) {
+        StateDiffer view = new StateDiffer(-1);
+        spectators.put(connection, view);
+        connection.send(Protocol.joined(id, Protocol.NO_SEAT, connections.length));
+        if (engine != null) {
+            send(connection, view, viewerFlags(-1), 0);
+        }
+    }
+
+    void unwatch(Connection connection) {
+        spectators.remove(connection);
+    }
+
+    private void start() {
+        int seats = connections.length;
+        engine = new GameEngine(rules, new SplitMixGameRandom(seed),
+                DeckFactory.decksFor(seats, rules.getStartingCards()));
+        for (int seat = 0; seat < seats; seat++) {
+            if (seat < humanSeats) {
+                // A human who left before the start is a bot from the first turn
+                engine.addPlayer(new Player(names[seat], connections[seat] == null));
+            } else {
+                engine.addPlayer(new Player("Bot " + (seat + 1), true));
+            }
+        }
+        bots = new HeadlessGame(engine);
+        engine.startGame();
+        runBots();
+        broadcast();
+    }
+
+    /**
+     * Apply one frame from the client at the seat and send everyone the result. The
+     * argument is the frame's payload byte, or -1 if it had none.
+     */
+    void handle(Connection connection, int seat, int type, int argument) {
+        if (seat < 0 || engine == null || over) {
+            connection.send(Protocol.rejected(Protocol.NOT_YOUR_TURN));
+            return;
+        }
+        int reason;
+        if (argument < 0 && type != Protocol.DRAW) {
+            type = -1; // Missing argument
+        }
+        switch (type) {
+            case Protocol.PLAY:
+                reason = isTurnOf(seat) ? play(argument) : Protocol.NOT_YOUR_TURN;
+                break;
+            case Protocol.DRAW:
+                reason = isTurnOf(seat) ? draw() : Protocol.NOT_YOUR_TURN;
+                break;
+            case Protocol.SWAP:
+                reason = seat == swapSeat ? swap(argument) : Protocol.NOT_YOUR_TURN;
+                break;
+            case Protocol.CHALLENGE:
+                reason = seat == challengeSeat ? challenge(argument != 0) : Protocol.NOT_YOUR_TURN;
+                break;
+            default:
+                reason = Protocol.BAD_REQUEST;
+                break;
+        }
+        if (reason != 0) {
+            connection.send(Protocol.rejected(reason));
+            return;
+        }
+        turns++;
+        runBots();
+        broadcast();
+    }
+
+    /**
+     * The connection at the seat went away: a bot takes over, answering anything the
+     * seat still owed the way HeadlessGame would.
+     */
+    void leave(int seat) {
+        connections[seat] = null;
+        views[seat] = null;
+        if (engine == null || over) {
+            return;
+        }
+        // HeadlessGame only picks cards and wild colors for AI players
+        engine.getPlayers().get(seat).setAI(true);
+        if (seat == swapSeat) {
+            swap(randomOtherSeat(seat));
+        } else if (seat == challengeSeat) {
+            challenge(false);
+        }
+        if (hasConnections() || !spectators.isEmpty()) {
+            runBots();
+            broadcast();
+        } else {
+            deadline = Long.MAX_VALUE; // Nobody left to play for or to watch
+        }
+    }
+
+    /**
+     * Nanoseconds until the move owed by a human is due, or Long.MAX_VALUE while no
+     * move is owed.
+     */
+    long nanosUntilTimeout() {
+        return deadline == Long.MAX_VALUE ? Long.MAX_VALUE : deadline - System.nanoTime();
+    }
+
+    /**
+     * The human owing a move let the turn timeout pass; answer for them as a bot would.
+     */
+    void timeOut() {
+        if (engine == null || over) {
+            deadline = Long.MAX_VALUE;
+            return;
+        }
+        if (swapSeat >= 0) {
+            swap(randomOtherSeat(swapSeat));
+        } else if (challengeSeat >= 0) {
+            challenge(false);
+        } else {
+            // Lend the seat to the AI for this one turn; a human still seated keeps it afterwards
+            Player player = engine.getCurrentPlayer();
+            boolean wasAI = player.isAI();
+            player.setAI(true);
+            boolean won = bots.playTurn();
+            player.setAI(wasAI);
+            if (won) {
+                finish(bots.getWinnerIndex());
+            }
+        }
+        turns++;
+        runBots();
+        broadcast();
+    }
+
+    private boolean hasConnections() {
+        for (Connection connection : connections) {
+            if (connection != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isTurnOf(int seat) {
+        return swapSeat < 0 && challengeSeat < 0 && engine.getCurrentPlayerIndex() == seat;
+    }
+
+    // Returns 0 if the card was played, otherwise the REJECTED reason
+    private int play(int code) {
+        Card face = code < Card.CODE_LIMIT ? Card.fromCode(code) : null;
+        if (face == null) {
+            return Protocol.BAD_REQUEST;
+        }
+        // A wild travels in its chosen color but sits in the hand uncolored
+        Card.Color color = face.getColor();
+        Card card = face;
+        if (Card.isWild(code)) {
+            if (color == Card.Color.WILD) {
+                return Protocol.ILLEGAL_MOVE;
+            }
+            card = face.withColor(Card.Color.WILD);
+        }
+        Player player = engine.getCurrentPlayer();
+        if (player.getHand().getCount(card) == 0 || !engine.canPlayCard(card)) {
+            return Protocol.ILLEGAL_MOVE;
+        }
+
+        PlayResult result = engine.playCard(card, color);
+        switch (result.getKind()) {
+            case WIN:
+                finish(result.getValue());
+                break;
+            case SEVEN_SWAP:
+                swapSeat = engine.getCurrentPlayerIndex();
+                break;
+            case CHALLENGE_AVAILABLE:
+                // The player now up decides; a bot accepts, as on the device
+                if (connections[engine.getCurrentPlayerIndex()] != null) {
+                    challengeSeat = engine.getCurrentPlayerIndex();
+                    challengedSeat = result.getValue();
+                } else {
+                    acceptDrawFour();
+                }
+                break;
+            case ZERO_ROTATE:
+                engine.rotateAllHands();
+                engine.nextPlayer();
+                break;
+            case DRAW_STACKED:
+                engine.nextPlayer();
+                break;
+            default:
+                break;
+        }
+        return 0;
+    }
+
+    private int draw() {
+        Player player = engine.getCurrentPlayer();
+        if (!engine.isDrawAllowed()) {
+            if (rules.isForcePlayEnabled()) {
+                return Protocol.ILLEGAL_MOVE; // Must play a card
+            }
+            engine.nextPlayer(); // Draw on No Play is off: the turn is skipped
+        } else if (rules.isDrawToMatchEnabled()) {
+            int drawn = 0;
+            boolean foundPlayable = false;
+            while (!foundPlayable && drawn < MAX_DRAW_TO_MATCH) {
+                Card card = engine.drawCard();
+                if (card == null) {
+                    break; // No more cards in deck
+                }
+                drawn++;
+                player.addCard(card);
+                foundPlayable = engine.canPlayCard(card);
+            }
+            if (!foundPlayable) {
+                engine.nextPlayer();
+            }
+        } else {
+            Card card = engine.drawCard();
+            if (card != null) {
+                player.addCard(card);
+                if (!engine.canPlayCard(card) && rules.isDrawOnNoPlayEnabled()) {
+                    engine.nextPlayer();
+                }
+            }
+        }
+        return 0;
+    }
+
+    private int swap(int target) {
+        if (target >= connections.length || target == swapSeat) {
+            return Protocol.BAD_REQUEST;
+        }
+        swapSeat = -1;
+        engine.swapHandsWithPlayer(target);
+        engine.nextPlayer();
+        return 0;
+    }
+
+    private int challenge(boolean challenge) {
+        challengeSeat = -1;
+        if (challenge) {
+            engine.executeChallengeResult(engine.canChallengeDrawFour(challengedSeat), challengedSeat);
+        } else {
+            acceptDrawFour();
+        }
+        return 0;
+    }
+
+    private void acceptDrawFour() {
+        engine.nextPlayer();
+        engine.drawCards(engine.getCurrentPlayer(), 4);
+    }
+
+    private int randomOtherSeat(int seat) {
+        int target;
+        do {
+            target = engine.getRandom().nextInt(connections.length);
+        } while (target == seat);
+        return target;
+    }
+
+    // Play bot seats until a connected human is up or owes an answer
+    private void runBots() {
+        while (!over && swapSeat < 0 && challengeSeat < 0
+                && connections[engine.getCurrentPlayerIndex()] == null) {
+            if (bots.playTurn()) {
+                finish(bots.getWinnerIndex());
+                return;
+            }
+            turns++;
+        }
+        if (turns >= MAX_TURNS && !over) {
+            finish(-1);
+        }
+    }
+
+    private void finish(int winnerIndex) {
+        over = true;
+        winner = winnerIndex;
+    }
+
+    // Send every viewer what changed; whoever is up now has until the timeout to answer
+    private void broadcast() {
+        deadline = over ? Long.MAX_VALUE : System.nanoTime() + turnTimeoutNanos;
+        for (int seat = 0; seat < connections.length; seat++) {
+            if (connections[seat] != null) {
+                long playable = !over && isTurnOf(seat) ? engine.getPlayableMask(engine.getPlayers().get(seat)) : 0;
+                send(connections[seat], views[seat], viewerFlags(seat), playable);
+            }
+        }
+        int spectatorFlags = viewerFlags(-1);
+        for (Map.Entry<Connection, StateDiffer> spectator : spectators.entrySet()) {
+            send(spectator.getKey(), spectator.getValue(), spectatorFlags, 0);
+        }
+    }
+
+    private void send(Connection connection, StateDiffer view, int flags, long playable) {
+        ByteBuffer delta = view.next(engine, flags, winner < 0 ? Protocol.NO_WINNER : winner, playable);
+        if (delta != null) {
+            connection.send(delta);
+        }
+    }
+
+    // Seat -1 is a spectator, who never has anything to answer
+    private int viewerFlags(int seat) {
+        int flags = engine.isClockwise() ? Protocol.FLAG_CLOCKWISE : 0;
+        if (seat >= 0 && seat == swapSeat) {
+            flags |= Protocol.FLAG_CHOOSE_SWAP;
+        }
+        if (seat >= 0 && seat == challengeSeat) {
+            flags |= Protocol.FLAG_CHOOSE_CHALLENGE;
+        }
+        if (over) {
+            flags |= Protocol.FLAG_GAME_OVER;
+        }
+        return flags;
+    }
+}
@@ -0,0 +1,121 @@
+package com.cardstack.game.server;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gives one Table its own thread. The event loop only decodes frames and queues them
+ * here; the table thread applies them, plays the bots and waits for the next human move
+ * with the turn timeout as its deadline, so a slow table never holds up the others and
+ * an idle one only costs a parked thread.
+ *
+ * Tables run on virtual threads where the JDK has them (21 on) and on small platform
+ * threads otherwise. The lookup goes through reflection because the module still
+ * targets Java 11.
+ */
+final class TableRunner {
+    // Idle platform threads commit little of this, but it caps what each reserves
+    private static final long PLATFORM_STACK_SIZE = 256 * 1024;
+
+    private static final Method OF_VIRTUAL;
+    private static final Method BUILDER_NAME;
+    private static final Method BUILDER_UNSTARTED;
+
+    static {
+        Method ofVirtual = null;
+        Method name = null;
+        Method unstarted = null;
+        try {
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            name = builder.getMethod("name", String.class);
+            unstarted = builder.getMethod("unstarted", Runnable.class);
+        } catch (ReflectiveOperationException e) {
+            // Before Java 21: platform threads
+        }
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = name;
+        BUILDER_UNSTARTED = unstarted;
+    }
+
+    private final Table table;
+    private final BlockingQueue<Runnable> inbox = new LinkedBlockingQueue<>();
+    private final Thread thread;
+    private boolean stopped; // Table thread only
+
+    TableRunner(Table table) {
+        this.table = table;
+        this.thread = newThread("table-" + table.getId(), this::run);
+    }
+
+    Table getTable() {
+        return table;
+    }
+
+    static boolean isVirtual() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Unstarted thread for the task: virtual if the JDK supports it, otherwise a daemon
+     * platform thread with a small stack.
+     */
+    static Thread newThread(String name, Runnable task) {
+        if (OF_VIRTUAL != null) {
+            try {
+                Object builder = BUILDER_NAME.invoke(OF_VIRTUAL.invoke(null), name);
+                return (Thread) BUILDER_UNSTARTED.invoke(builder, task);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot create a virtual thread", e);
+            }
+        }
+        Thread thread = new Thread(null, task, name, PLATFORM_STACK_SIZE);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * Run the action on the table thread after everything queued before it.
+     */
+    void execute(Runnable action) {
+        inbox.add(action);
+    }
+
+    /**
+     * Let the table thread finish what is queued, then end it.
+     */
+    void stop() {
+        execute(() -> stopped = true);
+    }
+
+    /**
+     * End the table thread now, dropping anything still queued. Used when the server closes.
+     */
+    void interrupt() {
+        thread.interrupt();
+    }
+
+    private void run() {
+        try {
+            while (!stopped) {
+                long timeout = table.nanosUntilTimeout();
+                Runnable action = timeout == Long.MAX_VALUE
+                        ? inbox.take()
+                        : inbox.poll(Math.max(0, timeout), TimeUnit.NANOSECONDS);
+                if (action != null) {
+                    action.run();
+                } else {
+                    table.timeOut();
+                }
+            }
+        } catch (InterruptedException e) {
+            // Server closed
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.cardstack.game.server;
+
+import com.cardstack.game.RuleSet;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Whole games against an in-process GameServer over loopback sockets. Every
+ * LoopbackClient checks each delta against its own copy of the view, so a finished
+ * game also means every delta applied cleanly.
+ */
+public class GameServerTest {
+    private static final int RULES = RuleSet.DEFAULT_MASK;
+
+    private GameServer server;
+    private final List<LoopbackClient> clients = new ArrayList<>();
+
+    @After
+    public void tearDown() throws IOException {
+        for (LoopbackClient client : clients) {
+            client.close();
+        }
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test(timeout = 30_000)
+    public void humansAtOneTablePlayToAWinner() throws Exception {
+        startServer(GameServer.DEFAULT_TURN_TIMEOUT_MS);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<LoopbackClient> players = new ArrayList<>();
+            List<Future<Integer>> winners = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                LoopbackClient client = connect();
+                players.add(client);
+                String name = "Human " + (i + 1);
+                winners.add(pool.submit((Callable<Integer>) () -> {
+                    client.join(RULES, 4, 4, name);
+                    return client.playGame();
+                }));
+            }
+
+            Set<Integer> seats = new HashSet<>();
+            int winner = winners.get(0).get();
+            assertNotEquals(-1, winner);
+            for (int i = 0; i < players.size(); i++) {
+                LoopbackClient client = players.get(i);
+                assertEquals(winner, (int) winners.get(i).get());
+                assertEquals(players.get(0).getTableId(), client.getTableId());
+                seats.add(client.getSeat());
+                assertEquals(0, client.getCount(winner));
+                assertEquals(client.getCount(client.getSeat()), client.getHandSize());
+            }
+            assertEquals(4, seats.size());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test(timeout = 30_000)
+    public void botPlaysTheSeatOfAHumanWhoLeft() throws Exception {
+        startServer(GameServer.DEFAULT_TURN_TIMEOUT_MS);
+        LoopbackClient stays = connect();
+        LoopbackClient leaves = connect();
+        stays.join(RULES, 2, 2, "Stays");
+        leaves.join(RULES, 2, 2, "Leaves");
+        leaves.close();
+
+        int abandoned = leaves.getSeat();
+        stays.awaitStart();
+        boolean abandonedSeatPlayed = false;
+        int count = stays.getCount(abandoned);
+        while (stays.step()) {
+            // Under these rules a hand only shrinks when its seat plays
+            abandonedSeatPlayed |= stays.getCount(abandoned) < count;
+            count = stays.getCount(abandoned);
+        }
+        abandonedSeatPlayed |= stays.getCount(abandoned) < count;
+
+        assertTrue("The abandoned seat never played a card", abandonedSeatPlayed);
+        assertFinished(stays);
+    }
+
+    @Test(timeout = 30_000)
+    public void timeoutPlaysTheTurnOfASilentHuman() throws Exception {
+        startServer(100); // Long enough that the active client always answers in time
+        LoopbackClient active = connect();
+        LoopbackClient silent = connect(); // Joins, then never moves
+        active.join(RULES, 2, 2, "Active");
+        silent.join(RULES, 2, 2, "Silent");
+
+        int idle = silent.getSeat();
+        active.awaitStart();
+        boolean idleSeatPlayed = false;
+        int count = active.getCount(idle);
+        while (active.step()) {
+            idleSeatPlayed |= active.getCount(idle) < count;
+            count = active.getCount(idle);
+        }
+        idleSeatPlayed |= active.getCount(idle) < count;
+
+        assertTrue("Timed out turns never played a card", idleSeatPlayed);
+        assertFinished(active);
+    }
+
+    @Test(timeout = 30_000)
+    public void spectatorSeesWhatThePlayersSee() throws Exception {
+        startServer(GameServer.DEFAULT_TURN_TIMEOUT_MS);
+        LoopbackClient player = connect();
+        LoopbackClient spectator = connect();
+        player.join(RULES, 4, 1, "Player"); // The bots play until the human is up
+        spectator.watch(player.getTableId());
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> watched = pool.submit(spectator::playGame);
+            int winner = player.playGame();
+
+            assertEquals(winner, (int) watched.get());
+            assertFinished(player);
+            assertEquals(player.getSeatCount(), spectator.getSeatCount());
+            for (int seat = 0; seat < player.getSeatCount(); seat++) {
+                assertEquals(player.getCount(seat), spectator.getCount(seat));
+            }
+            assertEquals(0, spectator.getHandSize());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test(timeout = 10_000)
+    public void spectatorSeesTheGameEndAfterTheLastHumanLeaves() throws Exception {
+        startServer(GameServer.DEFAULT_TURN_TIMEOUT_MS); // Far longer than the test may take
+        LoopbackClient player = connect();
+        LoopbackClient spectator = connect();
+        player.join(RULES, 4, 1, "Player");
+        spectator.watch(player.getTableId());
+        player.close();
+
+        int winner = spectator.playGame();
+
+        assertNotEquals(-1, winner);
+        assertEquals(0, spectator.getCount(winner));
+    }
+
+    private void startServer(long turnTimeoutMillis) throws IOException {
+        server = new GameServer(0, turnTimeoutMillis);
+        server.start();
+    }
+
+    private LoopbackClient connect() throws IOException {
+        LoopbackClient client = new LoopbackClient("localhost", server.getPort());
+        clients.add(client);
+        return client;
+    }
+
+    private static void assertFinished(LoopbackClient client) {
+        assertTrue(client.isGameOver());
+        int winner = client.getWinner();
+        assertNotEquals(-1, winner);
+        assertEquals(0, client.getCount(winner));
+        assertEquals(client.getCount(client.getSeat()), client.getHandSize());
+    }
+}
@@ -0,0 +1,342 @@
+package com.cardstack.game.server;
+
+import com.cardstack.game.Card;
+import com.cardstack.game.Hand;
+import com.cardstack.game.RuleSet;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Blocking client that plays whole games against a GameServer over the wire protocol,
+ * standing in for devices in GameServerTest and in load runs. It plays the first
+ * playable card in its hand, picks red for wilds, swaps with the seat holding the
+ * fewest cards and accepts every Wild Draw Four. Every delta is applied to its own
+ * copy of the view, which must keep its hand and its seat's count in step.
+ *
+ * Usage: LoopbackClient [--port N] [--clients N] [--games N] [--seats N] [--humans N] [--rules MASK]
+ *
+ * Run it from the server's test classpath. Without --port an in-process server on a
+ * free port is started first. Every client thread (virtual where the JDK has them,
+ * like the server's tables) plays --games games in a row; the totals report games per
+ * second and the bytes each side sent per game.
+ */
+public class LoopbackClient implements AutoCloseable {
+    private final SocketChannel channel;
+    private final ByteBuffer in = ByteBuffer.allocate(Protocol.HEADER_SIZE + Protocol.MAX_FRAME);
+    private long bytesSent;
+    private long bytesReceived;
+
+    // View built from JOINED and the DELTA frames since
+    private int tableId;
+    private int seat = -1;
+    private int currentSeat;
+    private int flags;
+    private int winner = Protocol.NO_WINNER;
+    private int[] counts = new int[0];
+    private final List<Integer> hand = new ArrayList<>();
+    private long playable;
+
+    public LoopbackClient(String host, int port) throws IOException {
+        channel = SocketChannel.open(new InetSocketAddress(host, port));
+        channel.socket().setTcpNoDelay(true);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = -1;
+        int clients = 200;
+        int games = 5;
+        int seats = 4;
+        int humans = 1;
+        int rules = RuleSet.DEFAULT_MASK;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port": port = Integer.parseInt(args[++i]); break;
+                case "--clients": clients = Integer.parseInt(args[++i]); break;
+                case "--games": games = Integer.parseInt(args[++i]); break;
+                case "--seats": seats = Integer.parseInt(args[++i]); break;
+                case "--humans": humans = Integer.parseInt(args[++i]); break;
+                case "--rules": rules = Integer.parseInt(args[++i]); break;
+                default:
+                    System.err.println("Usage: LoopbackClient [--port N] [--clients N] [--games N]"
+                            + " [--seats N] [--humans N] [--rules MASK]");
+                    System.exit(2);
+            }
+        }
+
+        GameServer server = null;
+        if (port < 0) {
+            server = new GameServer(0);
+            server.start();
+            port = server.getPort();
+        }
+
+        int serverPort = port;
+        int gamesPerClient = games;
+        int tableSeats = seats;
+        int humanSeats = humans;
+        int rulesMask = rules;
+        AtomicLong finished = new AtomicLong();
+        AtomicLong sent = new AtomicLong();
+        AtomicLong received = new AtomicLong();
+        AtomicLong peakTables = new AtomicLong();
+        List<Thread> threads = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            String name = "Client " + (c + 1);
+            Thread thread = TableRunner.newThread(name, () -> {
+                try (LoopbackClient client = new LoopbackClient("localhost", serverPort)) {
+                    for (int g = 0; g < gamesPerClient; g++) {
+                        client.join(rulesMask, tableSeats, humanSeats, name);
+                        client.playGame();
+                        finished.incrementAndGet();
+                    }
+                    sent.addAndGet(client.bytesSent);
+                    received.addAndGet(client.bytesReceived);
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        if (server != null) {
+            while (threads.stream().anyMatch(Thread::isAlive)) {
+                peakTables.accumulateAndGet(server.getTableCount(), Math::max);
+                Thread.sleep(5);
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long total = finished.get();
+        System.out.printf(Locale.US, "%d games in %.2fs (%.0f games/s), %d clients%n",
+                total, seconds, total / seconds, clients);
+        System.out.printf(Locale.US, "per game: client->server %.0f B, server->client %.0f B%n",
+                (double) sent.get() / Math.max(1, total), (double) received.get() / Math.max(1, total));
+        if (server != null) {
+            System.out.println("peak tables: " + peakTables.get());
+            server.close();
+        }
+    }
+
+    /**
+     * Ask for a seat and wait until the server has placed this client at a table.
+     */
+    public void join(int rulesMask, int seats, int humanSeats, String name) throws IOException {
+        send(Protocol.join(rulesMask, seats, humanSeats, name));
+        awaitJoined();
+    }
+
+    /**
+     * Follow the table as a spectator; playGame() then just watches it to the end.
+     */
+    public void watch(int tableId) throws IOException {
+        send(Protocol.watch(tableId));
+        awaitJoined();
+    }
+
+    /**
+     * Play until the server reports the game over. Returns the winning seat, or -1 if
+     * the game was called off.
+     */
+    public int playGame() throws IOException {
+        awaitStart();
+        while (step()) {
+            // Until the game is over
+        }
+        return getWinner();
+    }
+
+    /**
+     * Wait for the first DELTA, which carries the whole view and arrives once every
+     * human has joined.
+     */
+    public void awaitStart() throws IOException {
+        receive();
+    }
+
+    /**
+     * Make the move this client owes, if any, then apply the next frame. Returns false
+     * once the game is over.
+     */
+    public boolean step() throws IOException {
+        if (isGameOver()) {
+            return false;
+        }
+        if ((flags & Protocol.FLAG_CHOOSE_SWAP) != 0) {
+            send(Protocol.swap(fewestCardsSeat()));
+        } else if ((flags & Protocol.FLAG_CHOOSE_CHALLENGE) != 0) {
+            send(Protocol.challenge(false));
+        } else if (currentSeat == seat) {
+            send(playable != 0 ? Protocol.play(chooseCard()) : Protocol.draw());
+        }
+        receive();
+        return !isGameOver();
+    }
+
+    public int getTableId() {
+        return tableId;
+    }
+
+    public int getSeat() {
+        return seat;
+    }
+
+    public boolean isGameOver() {
+        return (flags & Protocol.FLAG_GAME_OVER) != 0;
+    }
+
+    /**
+     * Winning seat, or -1 while the game runs or if it was called off.
+     */
+    public int getWinner() {
+        return winner == Protocol.NO_WINNER ? -1 : winner;
+    }
+
+    public int getSeatCount() {
+        return counts.length;
+    }
+
+    /**
+     * Cards held by the seat, as of the last delta.
+     */
+    public int getCount(int seat) {
+        return counts[seat];
+    }
+
+    public int getHandSize() {
+        return hand.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private int chooseCard() {
+        for (int code : hand) {
+            if ((playable & Hand.bit(code)) != 0) {
+                if (Card.isWild(code)) {
+                    return Card.encode(Card.Color.RED, Card.fromCode(code).getType(), 0);
+                }
+                return code;
+            }
+        }
+        throw new IllegalStateException("Playable mask matches no card in hand");
+    }
+
+    private int fewestCardsSeat() {
+        int best = -1;
+        for (int other = 0; other < counts.length; other++) {
+            if (other != seat && (best < 0 || counts[other] < counts[best])) {
+                best = other;
+            }
+        }
+        return best;
+    }
+
+    private void send(ByteBuffer frame) throws IOException {
+        bytesSent += frame.remaining();
+        while (frame.hasRemaining()) {
+            channel.write(frame);
+        }
+    }
+
+    private void awaitJoined() throws IOException {
+        seat = -1;
+        flags = 0;
+        winner = Protocol.NO_WINNER;
+        while (seat < 0) {
+            receive();
+        }
+    }
+
+    // Read and apply one frame
+    private void receive() throws IOException {
+        while (in.position() < Protocol.HEADER_SIZE
+                || in.position() < Protocol.HEADER_SIZE + (in.getShort(0) & 0xFFFF)) {
+            if (channel.read(in) < 0) {
+                throw new IOException("Server closed the connection");
+            }
+        }
+        int length = in.getShort(0) & 0xFFFF;
+        bytesReceived += Protocol.HEADER_SIZE + length;
+        in.flip();
+        in.position(Protocol.HEADER_SIZE);
+        int type = in.get() & 0xFF;
+        switch (type) {
+            case Protocol.JOINED:
+                tableId = in.getInt();
+                seat = in.get() & 0xFF;
+                counts = new int[in.get() & 0xFF];
+                break;
+            case Protocol.DELTA:
+                readDelta();
+                break;
+            case Protocol.REJECTED:
+                throw new IllegalStateException("Server rejected a move, reason " + (in.get() & 0xFF));
+            default:
+                throw new IOException("Unknown frame type " + type);
+        }
+        in.position(Protocol.HEADER_SIZE + length);
+        in.compact();
+    }
+
+    // See StateDiffer
+    private void readDelta() {
+        int sections = in.getShort() & 0xFFFF;
+        if ((sections & Protocol.SECTION_TOP) != 0) {
+            in.get();
+        }
+        if ((sections & Protocol.SECTION_CURRENT) != 0) {
+            currentSeat = in.get() & 0xFF;
+        }
+        if ((sections & Protocol.SECTION_FLAGS) != 0) {
+            flags = in.get() & 0xFF;
+        }
+        if ((sections & Protocol.SECTION_DECK) != 0) {
+            in.getShort();
+        }
+        if ((sections & Protocol.SECTION_STACK) != 0) {
+            in.getShort();
+        }
+        if ((sections & Protocol.SECTION_WINNER) != 0) {
+            winner = in.get() & 0xFF;
+        }
+        if ((sections & Protocol.SECTION_COUNTS) != 0) {
+            for (int changed = in.get() & 0xFF; changed > 0; changed--) {
+                int changedSeat = in.get() & 0xFF;
+                counts[changedSeat] = in.getShort() & 0xFFFF;
+            }
+        }
+        if ((sections & Protocol.SECTION_HAND) != 0) {
+            hand.clear();
+            for (int size = in.getShort() & 0xFFFF; size > 0; size--) {
+                hand.add(in.get() & 0xFF);
+            }
+        }
+        if ((sections & Protocol.SECTION_HAND_DIFF) != 0) {
+            for (int removed = in.getShort() & 0xFFFF; removed > 0; removed--) {
+                hand.remove(Integer.valueOf(in.get() & 0xFF));
+            }
+            for (int added = in.getShort() & 0xFFFF; added > 0; added--) {
+                hand.add(in.get() & 0xFF);
+            }
+        }
+        if ((sections & Protocol.SECTION_PLAYABLE) != 0) {
+            playable = in.getLong();
+        }
+        if (seat < counts.length && hand.size() != counts[seat]) {
+            throw new IllegalStateException("Hand of " + hand.size() + " cards, count says " + counts[seat]);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.cardstack.game.simulator;
+
+import com.cardstack.game.HeadlessGame;
+import com.cardstack.game.RuleSet;
+
+import java.util.Locale;
+
+/**
+ * Outcome counters for all games played under one rule combination.
+ * Each worker fills its own report; reports are merged once the batch is done.
+ */
+public class SimulationReport {
+    private final RuleSet rules;
+    private final long[] winsBySeat;
+
+    private long games;
+    private long unfinished;
+    private long turns;
+    private long cardsDrawn;
+    private long turnsSkipped;
+    private long sevenSwaps;
+    private long zeroRotations;
+    private long progressiveStacks;
+    private long drawFoursAccepted;
+
+    public SimulationReport(RuleSet rules, int playerCount) {
+        this.rules = rules;
+        this.winsBySeat = new long[playerCount];
+    }
+
+    public void add(HeadlessGame game) {
+        games++;
+        if (game.isFinished()) {
+            winsBySeat[game.getWinnerIndex()]++;
+        } else {
+            unfinished++;
+        }
+        turns += game.getTurns();
+        cardsDrawn += game.getCardsDrawn();
+        turnsSkipped += game.getTurnsSkipped();
+        sevenSwaps += game.getSevenSwaps();
+        zeroRotations += game.getZeroRotations();
+        progressiveStacks += game.getProgressiveStacks();
+        drawFoursAccepted += game.getDrawFoursAccepted();
+    }
+
+    public void merge(SimulationReport other) {
+        games += other.games;
+        unfinished += other.unfinished;
+        turns += other.turns;
+        cardsDrawn += other.cardsDrawn;
+        turnsSkipped += other.turnsSkipped;
+        sevenSwaps += other.sevenSwaps;
+        zeroRotations += other.zeroRotations;
+        progressiveStacks += other.progressiveStacks;
+        drawFoursAccepted += other.drawFoursAccepted;
+        for (int i = 0; i < winsBySeat.length; i++) {
+            winsBySeat[i] += other.winsBySeat[i];
+        }
+    }
+
+    public RuleSet getRules() {
+        return rules;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.US, "%-60s games=%d unfinished=%.2f%%%n",
+                rules.describe(), games, percent(unfinished, games)));
+        sb.append(String.format(Locale.US,
+                "    per game: turns=%.1f drawn=%.1f skipped=%.1f swaps=%.2f rotations=%.2f stacks=%.2f draw4s=%.2f%n",
+                average(turns), average(cardsDrawn), average(turnsSkipped), average(sevenSwaps),
+                average(zeroRotations), average(progressiveStacks), average(drawFoursAccepted)));
+        sb.append("    wins by seat:");
+        for (int i = 0; i < winsBySeat.length; i++) {
+            sb.append(String.format(Locale.US, " %d=%.1f%%", i, percent(winsBySeat[i], games)));
+        }
+        sb.append(System.lineSeparator());
+        return sb.toString();
+    }
+
+    private double average(long total) {
+        return games == 0 ? 0.0 : (double) total / games;
+    }
+
+    private static double percent(long part, long total) {
+        return total == 0 ? 0.0 : part * 100.0 / total;
+    }
+}
@@ -0,0 +1,296 @@
+package com.cardstack.game.simulator;
+
+import com.cardstack.game.DeckFactory;
+import com.cardstack.game.GameEngine;
+import com.cardstack.game.GameRandom;
+import com.cardstack.game.GameRules;
+import com.cardstack.game.HeadlessGame;
+import com.cardstack.game.Player;
+import com.cardstack.game.Replay;
+import com.cardstack.game.ReplayPlayer;
+import com.cardstack.game.ReplayRecorder;
+import com.cardstack.game.RuleSet;
+import com.cardstack.game.SplitMixGameRandom;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs AI-vs-AI games headlessly across all cores and prints per-rule outcome statistics.
+ *
+ * Usage: Simulator [--games N] [--players N] [--decks N] [--threads N] [--starting-cards N]
+ *                  [--max-turns N] [--seed N] [--all-combinations] [--record FILE]
+ *        Simulator --replay FILE
+ *
+ * By default the shipped rule defaults are simulated once, then once more with each
+ * rule flipped, so the effect of every individual rule can be compared side by side.
+ * Tables of any size work; without --decks, DeckFactory picks enough decks to deal them.
+ *
+ * Every batch gets its own SplitMix stream split from the seed before any work starts,
+ * so results are identical for a given seed regardless of thread count or scheduling.
+ *
+ * --record writes every simulated game to FILE as a Replay. --replay plays such a file
+ * back on the current engine and checks that every game still ends in the recorded
+ * position, which makes a recorded corpus a regression test for GameEngine changes.
+ */
+public class Simulator {
+    // Games per task; large enough to amortise scheduling, small enough to balance cores
+    private static final int BATCH_SIZE = 500;
+
+    private final int playerCount;
+    private final int deckCount; // 0 picks enough for the table
+    private final int maxTurns;
+    private final boolean recording;
+    private final List<Replay> replays = new ArrayList<>();
+
+    public Simulator(int playerCount, int maxTurns) {
+        this(playerCount, 0, maxTurns, false);
+    }
+
+    /**
+     * With deckCount 0 each game uses DeckFactory.decksFor its table. With recording on,
+     * every game is kept as a Replay; see getReplays().
+     */
+    public Simulator(int playerCount, int deckCount, int maxTurns, boolean recording) {
+        this.playerCount = playerCount;
+        this.deckCount = deckCount;
+        this.maxTurns = maxTurns;
+        this.recording = recording;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int games = 100_000;
+        int players = 4;
+        int decks = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int startingCards = 7;
+        int maxTurns = 2_000;
+        long seed = System.nanoTime();
+        boolean allCombinations = false;
+        String recordFile = null;
+        String replayFile = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--games":
+                    games = Integer.parseInt(args[++i]);
+                    break;
+                case "--players":
+                    players = Integer.parseInt(args[++i]);
+                    break;
+                case "--decks":
+                    decks = Integer.parseInt(args[++i]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--starting-cards":
+                    startingCards = Integer.parseInt(args[++i]);
+                    break;
+                case "--max-turns":
+                    maxTurns = Integer.parseInt(args[++i]);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                case "--all-combinations":
+                    allCombinations = true;
+                    break;
+                case "--record":
+                    recordFile = args[++i];
+                    break;
+                case "--replay":
+                    replayFile = args[++i];
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(1);
+            }
+        }
+
+        if (replayFile != null) {
+            System.exit(verifyReplays(replayFile) ? 0 : 1);
+        }
+        if (decks < 0) {
+            System.err.println("--decks must be 0 (enough for the table) or more");
+            System.exit(1);
+        }
+        int tableDecks = decks > 0 ? decks : DeckFactory.decksFor(players, startingCards);
+        if (recordFile != null && (players > Replay.MAX_COUNT || tableDecks > Replay.MAX_COUNT
+                || startingCards > Replay.MAX_COUNT)) {
+            System.err.println("Replays hold at most " + Replay.MAX_COUNT
+                    + " players, decks and starting cards each");
+            System.exit(1);
+        }
+
+        List<RuleSet> ruleSets = new ArrayList<>();
+        if (allCombinations) {
+            for (int mask = 0; mask < (1 << GameRules.RULE_COUNT); mask++) {
+                ruleSets.add(RuleSet.fromMask(mask, startingCards));
+            }
+        } else {
+            ruleSets.add(RuleSet.fromMask(RuleSet.DEFAULT_MASK, startingCards));
+            for (int i = 0; i < GameRules.RULE_COUNT; i++) {
+                ruleSets.add(RuleSet.fromMask(RuleSet.DEFAULT_MASK ^ (1 << i), startingCards));
+            }
+        }
+
+        Simulator simulator = new Simulator(players, decks, maxTurns, recordFile != null);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            long start = System.nanoTime();
+            List<SimulationReport> reports = simulator.run(pool, ruleSets, games, new SplitMixGameRandom(seed));
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            long totalGames = 0;
+            for (SimulationReport report : reports) {
+                System.out.print(report.format());
+                totalGames += report.getGames();
+            }
+            System.out.println(String.format(Locale.US, "%d games on %d threads in %.2fs (%.0f games/sec), seed %d",
+                    totalGames, threads, seconds, totalGames / seconds, seed));
+            if (recordFile != null) {
+                writeReplays(recordFile, simulator.getReplays());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Play gamesPerRuleSet games for every rule set, spreading batches over the pool.
+     * Returns one merged report per rule set, in the same order.
+     */
+    public List<SimulationReport> run(ExecutorService pool, List<RuleSet> ruleSets,
+                                      int gamesPerRuleSet, GameRandom random) throws Exception {
+        List<List<Future<Batch>>> pending = new ArrayList<>();
+        for (RuleSet rules : ruleSets) {
+            List<Future<Batch>> batches = new ArrayList<>();
+            for (int done = 0; done < gamesPerRuleSet; done += BATCH_SIZE) {
+                int count = Math.min(BATCH_SIZE, gamesPerRuleSet - done);
+                GameRandom batchRandom = random.split();
+                batches.add(pool.submit(() -> playBatch(rules, count, batchRandom)));
+            }
+            pending.add(batches);
+        }
+
+        List<SimulationReport> reports = new ArrayList<>();
+        for (int i = 0; i < ruleSets.size(); i++) {
+            SimulationReport merged = new SimulationReport(ruleSets.get(i), playerCount);
+            for (Future<Batch> future : pending.get(i)) {
+                Batch batch = future.get();
+                merged.merge(batch.report);
+                replays.addAll(batch.replays);
+            }
+            reports.add(merged);
+        }
+        return reports;
+    }
+
+    /**
+     * Games recorded by run(), in rule set and batch order. Empty unless recording.
+     */
+    public List<Replay> getReplays() {
+        return replays;
+    }
+
+    private Batch playBatch(RuleSet rules, int count, GameRandom random) {
+        Batch batch = new Batch(new SimulationReport(rules, playerCount));
+        for (int i = 0; i < count; i++) {
+            // Each game gets a seed of its own so it can be recorded and replayed
+            batch.report.add(playGame(rules, random.nextLong(), batch.replays));
+        }
+        return batch;
+    }
+
+    private HeadlessGame playGame(RuleSet rules, long seed, List<Replay> replays) {
+        int decks = deckCount > 0 ? deckCount : DeckFactory.decksFor(playerCount, rules.getStartingCards());
+        GameEngine engine = new GameEngine(rules, new SplitMixGameRandom(seed), decks);
+        for (int p = 0; p < playerCount; p++) {
+            engine.addPlayer(new Player("AI " + (p + 1), true));
+        }
+        ReplayRecorder recorder = recording ? new ReplayRecorder(seed) : null;
+        engine.setRecorder(recorder);
+        engine.startGame();
+
+        HeadlessGame game = new HeadlessGame(engine);
+        game.play(maxTurns);
+        if (recorder != null) {
+            replays.add(recorder.toReplay(engine));
+        }
+        return game;
+    }
+
+    private static void writeReplays(String file, List<Replay> replays) throws IOException {
+        long bytes = 0;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            for (Replay replay : replays) {
+                replay.write(out);
+                bytes += replay.getOperationBytes();
+            }
+        }
+        System.out.println(String.format(Locale.US, "recorded %d games to %s (%.1f operation bytes per game)",
+                replays.size(), file, (double) bytes / Math.max(1, replays.size())));
+    }
+
+    /**
+     * Fast-forward every replay in the file; true if all of them reach their recorded end.
+     */
+    private static boolean verifyReplays(String file) throws IOException {
+        List<Replay> replays = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            Replay replay;
+            while ((replay = Replay.read(in)) != null) {
+                replays.add(replay);
+            }
+        }
+
+        int failures = 0;
+        long operations = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < replays.size(); i++) {
+            Replay replay = replays.get(i);
+            ReplayPlayer player = new ReplayPlayer(replay);
+            String failure = null;
+            try {
+                player.fastForward();
+                if (!player.matchesRecording()) {
+                    failure = "ends in a different position";
+                }
+            } catch (IllegalStateException e) {
+                failure = e.getMessage();
+            }
+            operations += player.getPosition();
+            if (failure != null) {
+                failures++;
+                System.out.println(String.format(Locale.US, "game %d (seed %d, %s): %s",
+                        i, replay.getSeed(), replay.getRules().describe(), failure));
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println(String.format(Locale.US, "replayed %d games, %d operations in %.2fs (%.0f games/sec), %d failed",
+                replays.size(), operations, seconds, replays.size() / seconds, failures));
+        return failures == 0;
+    }
+
+    // One task's results; replays stay empty unless recording
+    private static final class Batch {
+        final SimulationReport report;
+        final List<Replay> replays = new ArrayList<>();
+
+        Batch(SimulationReport report) {
+            this.report = report;
+        }
+    }
+}